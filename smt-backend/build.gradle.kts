@@ -1,6 +1,17 @@
 // Spring Boot 打包任务类型，用于设置最终可执行 jar 名称
 import org.springframework.boot.gradle.tasks.bundling.BootJar
 
+// Flyway Gradle 插件访问 SQL Server 需要数据库支持模块（版本与 Spring Boot 管理的 Flyway 一致）
+buildscript {
+    repositories {
+        maven { url = uri("https://maven.aliyun.com/repository/central") }
+        mavenCentral()
+    }
+    dependencies {
+        classpath("org.flywaydb:flyway-sqlserver:10.10.0")
+    }
+}
+
 // 统一管理 jOOQ 版本
 val jooqVersion by extra("3.19.24")
 
@@ -20,6 +31,10 @@ plugins {
     id("org.jooq.jooq-codegen-gradle") version "3.19.24"
     // 代码格式化
     id("com.diffplug.spotless") version "7.1.0"
+    // 数据库迁移（flywayMigrate）
+    id("org.flywaydb.flyway") version "10.10.0"
+    // JMH 基准测试（src/jmh/java）
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 // 将 jOOQ 生成代码加入源码目录，便于编译
@@ -39,7 +54,8 @@ sourceSets {
 group = "org.jdk.project"
 version = "1.0.0"
 description = "脚手架"
-java.sourceCompatibility = JavaVersion.VERSION_17
+// 默认 Java 17；启用虚拟线程 profile 时以 -PjavaVersion=21 构建（需 JDK 21）
+java.sourceCompatibility = JavaVersion.toVersion(findProperty("javaVersion") ?: "17")
 
 configurations {
     compileOnly {
@@ -67,6 +83,11 @@ dependencies {
     // 工具库
     implementation("org.apache.commons:commons-lang3:3.17.0")
     implementation("org.apache.commons:commons-collections4:4.4")
+    // 数据库版本化迁移（启动时执行 db/migration 下脚本）
+    implementation("org.flywaydb:flyway-core")
+    implementation("org.flywaydb:flyway-sqlserver")
+    // 本地缓存（版本由 Spring Boot 依赖管理）
+    implementation("com.github.ben-manes.caffeine:caffeine")
     // OpenAPI UI（与 Spring Boot 3.3 兼容的稳定版本）
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.6.0")
     // jOOQ 元数据支持（代码生成）
@@ -83,7 +104,9 @@ dependencies {
     compileOnly("com.google.code.findbugs:jsr305:3.0.2")
     // developmentOnly("org.springframework.boot:spring-boot-devtools") // 避免 DevTools 类加载干扰
 
-    // 测试（本项目已移除测试代码，如需测试可按需添加依赖）
+    // 测试（纯逻辑单元测试，不依赖数据库）
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
     // jOOQ 代码生成依赖
     jooqCodegen("com.microsoft.sqlserver:mssql-jdbc:12.6.1.jre11")
     jooqCodegen("org.jooq:jooq-codegen:$jooqVersion")
@@ -208,10 +231,123 @@ jooq {
     }
 }
 
+// 数据库迁移（与应用启动时的 spring.flyway 配置一致），已有库以 V1 为基线
+// 仅显式执行 ./gradlew flywayMigrate 时写库；编译与 jOOQ 代码生成只读取表结构，
+// 新增迁移后先执行 flywayMigrate（或启动一次应用）再编译
+flyway {
+    url = "jdbc:sqlserver://localhost:1433;databaseName=project;encrypt=false;trustServerCertificate=true"
+    user = "sa"
+    password = "YourStrong!Passw0rd"
+    schemas = arrayOf("smtBackend")
+    defaultSchema = "smtBackend"
+    locations = arrayOf("filesystem:src/main/resources/db/migration")
+    baselineOnMigrate = true
+    baselineVersion = "1"
+}
+
+// 执行计划回归校验（需要本机 docker，拉起 SQL Server 容器）
+tasks.register<Exec>("queryPlanCheck") {
+    group = "verification"
+    description = "在 SQL Server 容器中校验热点查询是否命中预期索引"
+    commandLine("bash", "sql/plan-check/plan-check.sh")
+}
+
 tasks.named("compileJava") {
     dependsOn("jooqCodegen")
 }
 
+// JMH 基准测试：./gradlew jmh，结果输出到 build/reports/jmh/results.json（含 gc 分配量）
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 2
+    iterations = 3
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    // 1M 行导出数据需常驻内存
+    jvmArgs = listOf("-Xmx4g")
+}
+
+val jmhBaselineFile = layout.projectDirectory.file("src/jmh/baseline.json")
+val jmhResultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+
+// 将本次 JMH 结果保存为基线（在固定机器上执行后提交）
+tasks.register<Copy>("jmhUpdateBaseline") {
+    group = "benchmark"
+    description = "将 build/reports/jmh/results.json 保存为 src/jmh/baseline.json"
+    mustRunAfter("jmh")
+    from(jmhResultsFile)
+    into(layout.projectDirectory.dir("src/jmh"))
+    rename { "baseline.json" }
+}
+
+// 对比本次结果与基线：平均耗时或 gc.alloc.rate.norm 超过阈值（默认 10%）即失败
+// 基线需在固定机器上执行 jmh jmhUpdateBaseline 生成并提交，提交前不注册该任务
+if (jmhBaselineFile.asFile.exists()) {
+    tasks.register("jmhCompare") {
+        group = "benchmark"
+        description = "对比 JMH 结果与基线的耗时和单次操作分配量"
+        mustRunAfter("jmh")
+        doLast {
+            val threshold = (project.findProperty("jmh.regressionThreshold") as String?)?.toDouble() ?: 0.10
+
+            @Suppress("UNCHECKED_CAST")
+            fun load(file: File): Map<String, Pair<Double, Double?>> {
+                val results = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+                return results.associate { result ->
+                    val params =
+                        (result["params"] as Map<String, Any?>?)
+                            ?.entries
+                            ?.sortedBy { it.key }
+                            ?.joinToString(",") { "${it.key}=${it.value}" }
+                            .orEmpty()
+                    val score = ((result["primaryMetric"] as Map<String, Any?>)["score"] as Number).toDouble()
+                    val secondary = result["secondaryMetrics"] as Map<String, Any?>?
+                    val alloc =
+                        (secondary?.get("gc.alloc.rate.norm") ?: secondary?.get("·gc.alloc.rate.norm"))
+                            as Map<String, Any?>?
+                    "${result["benchmark"]}($params)" to (score to (alloc?.get("score") as Number?)?.toDouble())
+                }
+            }
+
+            // 基线为空时直接失败，避免 CI 中"什么都没比较"却显示通过
+            val baseline = load(jmhBaselineFile.asFile)
+            if (baseline.isEmpty()) {
+                throw GradleException(
+                    "JMH 基线为空，请先在固定机器上执行 ./gradlew jmh jmhUpdateBaseline 并提交 src/jmh/baseline.json",
+                )
+            }
+            val current = load(jmhResultsFile.get().asFile)
+            val regressions = mutableListOf<String>()
+            var compared = 0
+            current.forEach { (key, value) ->
+                val base = baseline[key] ?: return@forEach
+                compared++
+                val timeDelta = value.first / base.first - 1
+                val allocDelta =
+                    if (value.second != null && base.second != null && base.second!! > 0) {
+                        value.second!! / base.second!! - 1
+                    } else {
+                        0.0
+                    }
+                logger.lifecycle(
+                    String.format("%s 耗时 %+.1f%% 分配 %+.1f%%", key, timeDelta * 100, allocDelta * 100),
+                )
+                if (timeDelta > threshold || allocDelta > threshold) {
+                    regressions.add(key)
+                }
+            }
+            if (compared == 0) {
+                throw GradleException("JMH 结果与基线没有相同的基准项，请重新生成 src/jmh/baseline.json")
+            }
+            if (regressions.isNotEmpty()) {
+                throw GradleException("JMH 性能回退超过 ${threshold * 100}%: $regressions")
+            }
+        }
+    }
+}
+
 tasks.named("compileTestJava") {
     dependsOn("jooqCodegen")
 }
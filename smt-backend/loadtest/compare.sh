@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# 平台线程与虚拟线程对比压测：分别以默认配置和 virtual-threads profile 启动应用，
+# 用同一 k6 脚本压测，输出 p95 延迟、吞吐与失败率对比。
+#
+# 依赖：JDK 21、k6、jq，以及一个可用的 SQL Server（application.yml 中的连接）。
+# 用法：LOADTEST_USERNAME=... LOADTEST_PASSWORD=... bash loadtest/compare.sh
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+REPORT_DIR="$ROOT_DIR/build/reports/loadtest"
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+mkdir -p "$REPORT_DIR"
+
+cd "$ROOT_DIR"
+./gradlew -q bootJar -PjavaVersion=21
+JAR="$(ls build/libs/*.jar | grep -v plain | head -n 1)"
+
+run() {
+  local name="$1"
+  shift
+  java -jar "$JAR" "$@" >"$REPORT_DIR/$name.log" 2>&1 &
+  local pid=$!
+  for _ in $(seq 1 60); do
+    # 未登录访问返回 401，能建立连接即视为已启动
+    if curl -s -o /dev/null "$BASE_URL/actuator/health"; then
+      break
+    fi
+    sleep 2
+  done
+  k6 run --quiet --summary-export "$REPORT_DIR/$name.json" "$ROOT_DIR/loadtest/shift-change.js" || true
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+run platform
+run virtual --spring.profiles.active=virtual-threads
+
+printf '%-10s %12s %12s %10s\n' mode p95_ms req_per_s failed
+for name in platform virtual; do
+  jq -r --arg name "$name" \
+    '[$name, .metrics.http_req_duration["p(95)"], .metrics.http_reqs.rate, .metrics.http_req_failed.value]
+     | @tsv' "$REPORT_DIR/$name.json" |
+    awk '{ printf "%-10s %12.1f %12.1f %10.4f\n", $1, $2, $3, $4 }'
+done
@@ -0,0 +1,65 @@
+// 交班高峰压测脚本（k6）：登录后混合访问维修记录列表、生产记录分页、产能汇总与异步导出。
+// 用法见 loadtest/README.md
+import http from 'k6/http'
+import { check, sleep } from 'k6'
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080'
+const FROM = __ENV.FROM || '2025-01-01'
+const TO = __ENV.TO || '2025-12-31'
+
+export const options = {
+  scenarios: {
+    shift_change: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: 100 },
+        { duration: '2m', target: Number(__ENV.PEAK_VUS || 400) },
+        { duration: '30s', target: 0 }
+      ]
+    }
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01']
+  }
+}
+
+export function setup() {
+  const res = http.post(
+    `${BASE_URL}/auth/sign-in`,
+    JSON.stringify({ username: __ENV.LOADTEST_USERNAME, password: __ENV.LOADTEST_PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } }
+  )
+  check(res, { 'signed in': (r) => r.status === 200 })
+  const cookie = res.cookies.jwt && res.cookies.jwt[0]
+  if (!cookie) {
+    throw new Error('sign-in did not return the jwt cookie')
+  }
+  return { jwt: cookie.value }
+}
+
+export default function (data) {
+  const params = { cookies: { jwt: data.jwt } }
+  const roll = Math.random()
+  let res
+  if (roll < 0.4) {
+    const page = 1 + Math.floor(Math.random() * 20)
+    res = http.get(`${BASE_URL}/repair-records?page=${page}&size=20`, params)
+  } else if (roll < 0.7) {
+    res = http.get(`${BASE_URL}/production-daily/records?from=${FROM}&to=${TO}&size=50`, params)
+  } else if (roll < 0.95) {
+    res = http.get(
+      `${BASE_URL}/production-daily/stats?from=${FROM}&to=${TO}&period=WEEK&groupBy=factory,line`,
+      params
+    )
+  } else {
+    // 导出任务按条件去重，高并发时多数请求复用同一任务
+    res = http.post(
+      `${BASE_URL}/export-jobs/repair-records`,
+      JSON.stringify({}),
+      { cookies: { jwt: data.jwt }, headers: { 'Content-Type': 'application/json' } }
+    )
+  }
+  check(res, { 'status ok': (r) => r.status >= 200 && r.status < 300 })
+  sleep(0.2 + Math.random() * 0.3)
+}
@@ -95,6 +95,25 @@ CREATE TABLE smtBackend.repair_record
 CREATE INDEX [IX_repair_record_source_process]
     ON smtBackend.repair_record ([source_process_id]);
 
+-- 热点查询索引（与 db/migration/V2__hot_query_indexes.sql 一致）
+CREATE INDEX [IX_repair_record_occur_at]
+    ON smtBackend.repair_record ([occur_at] DESC, [id] DESC)
+    INCLUDE ([shift], [factory_name], [workshop_name], [line_name], [machine_no],
+             [is_fixed], [fixed_at], [team_name], [abnormal_category_name], [abnormal_type_name]);
+
+CREATE INDEX [IX_repair_record_line_machine]
+    ON smtBackend.repair_record ([line_name], [machine_no], [occur_at] DESC)
+    INCLUDE ([factory_name], [workshop_name], [shift], [is_fixed], [fixed_at], [team_name]);
+
+CREATE INDEX [IX_repair_record_fixed_at]
+    ON smtBackend.repair_record ([fixed_at] DESC)
+    INCLUDE ([occur_at], [shift], [factory_name], [workshop_name], [line_name], [machine_no],
+             [is_fixed], [team_name]);
+
+CREATE INDEX [IX_repair_record_team_occur]
+    ON smtBackend.repair_record ([team_name], [occur_at] DESC)
+    INCLUDE ([is_fixed], [fixed_at], [line_name], [machine_no]);
+
 -- 维修记录-人员关系表
 CREATE TABLE smtBackend.repair_record_person
 (
@@ -106,6 +125,10 @@ CREATE TABLE smtBackend.repair_record_person
         FOREIGN KEY ([repair_record_id]) REFERENCES smtBackend.repair_record([id])
 );
 
+CREATE INDEX [IX_repair_record_person_record]
+    ON smtBackend.repair_record_person ([repair_record_id])
+    INCLUDE ([person_name]);
+
 -- 每日产能表
 CREATE TABLE smtBackend.production_daily_header
 (
@@ -146,6 +169,23 @@ CREATE TABLE smtBackend.production_daily_process
         UNIQUE ([header_id], [process_name], [machine_no])
 );
 
+-- 每日产能汇总：按（日期, 班别, 厂区, 车间, 线别, 制程段）预聚合，保存产能时增量维护，供统计/趋势查询
+CREATE TABLE smtBackend.production_daily_rollup
+(
+    [prod_date]     DATE          NOT NULL, -- 产能日期
+    [shift]         NVARCHAR(8)   NOT NULL, -- 班别：DAY=白班，NIGHT=夜班
+    [factory_name]  NVARCHAR(255) NOT NULL, -- 厂区名称
+    [workshop_name] NVARCHAR(255) NOT NULL, -- 车间名称
+    [line_name]     NVARCHAR(255) NOT NULL, -- 线别名称
+    [process_name]  NVARCHAR(128) NOT NULL, -- 制程段名称
+    [target_output] BIGINT        NOT NULL, -- 目标产能合计
+    [actual_output] BIGINT        NOT NULL, -- 实际产出合计
+    [down_minutes]  BIGINT        NOT NULL, -- 理论Down机时间合计(分钟)
+    [row_count]     INT           NOT NULL, -- 汇总的明细行数
+    CONSTRAINT [PK_production_daily_rollup]
+        PRIMARY KEY ([prod_date], [shift], [factory_name], [workshop_name], [line_name], [process_name])
+);
+
 -- 系统维护主数据表（下拉选项）
 CREATE TABLE smtBackend.sys_factory
 (
@@ -477,3 +517,14 @@ VALUES
      1.10, 3, 450, 900,
      870, -30, 96.67, 20,
      NULL, NULL);
+
+-- 每日产能汇总：由明细全量生成
+INSERT INTO smtBackend.production_daily_rollup
+    ([prod_date], [shift], [factory_name], [workshop_name], [line_name], [process_name],
+     [target_output], [actual_output], [down_minutes], [row_count])
+SELECT h.[prod_date], h.[shift], h.[factory_name], h.[workshop_name], h.[line_name], p.[process_name],
+       SUM(CAST(p.[target_output] AS BIGINT)), SUM(CAST(p.[actual_output] AS BIGINT)),
+       SUM(CAST(p.[down_minutes] AS BIGINT)), COUNT(*)
+FROM smtBackend.production_daily_process p
+         JOIN smtBackend.production_daily_header h ON h.[id] = p.[header_id]
+GROUP BY h.[prod_date], h.[shift], h.[factory_name], h.[workshop_name], h.[line_name], p.[process_name];
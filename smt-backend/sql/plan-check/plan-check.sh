@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# 执行计划回归校验：在本地 SQL Server 容器中执行全部迁移脚本、造数，
+# 再校验热点查询是否命中预期索引。需要本机可用 docker。
+#
+# 用法：./gradlew queryPlanCheck 或 bash sql/plan-check/plan-check.sh
+# 可通过环境变量 MSSQL_IMAGE 指定镜像（默认 SQL Server 2022）。
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/../.." && pwd)"
+IMAGE="${MSSQL_IMAGE:-mcr.microsoft.com/mssql/server:2022-latest}"
+CONTAINER="smt-plan-check-$$"
+SA_PASSWORD="PlanCheck!Passw0rd"
+SQLCMD=(/opt/mssql-tools18/bin/sqlcmd -C -S localhost -U sa -P "$SA_PASSWORD" -b)
+
+cleanup() {
+  docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+docker run -d --name "$CONTAINER" \
+  -e ACCEPT_EULA=Y \
+  -e MSSQL_SA_PASSWORD="$SA_PASSWORD" \
+  -v "$ROOT_DIR/src/main/resources/db/migration:/migration:ro" \
+  -v "$ROOT_DIR/sql/plan-check:/plan-check:ro" \
+  "$IMAGE" >/dev/null
+
+echo "等待 SQL Server 启动..."
+for _ in $(seq 1 60); do
+  if docker exec "$CONTAINER" "${SQLCMD[@]}" -Q "select 1" >/dev/null 2>&1; then
+    break
+  fi
+  sleep 2
+done
+
+docker exec "$CONTAINER" "${SQLCMD[@]}" -Q "create database project"
+
+# 按版本号顺序执行迁移脚本（与 Flyway 一致）
+for file in $(docker exec "$CONTAINER" sh -c 'ls /migration/V*__*.sql' | sort -V); do
+  echo "执行迁移 $(basename "$file")"
+  docker exec "$CONTAINER" "${SQLCMD[@]}" -d project -i "$file"
+done
+
+echo "造数..."
+docker exec "$CONTAINER" "${SQLCMD[@]}" -d project -i /plan-check/seed.sql
+
+echo "校验执行计划..."
+docker exec "$CONTAINER" "${SQLCMD[@]}" -d project -i /plan-check/plan-check.sql
+echo "执行计划校验通过"
@@ -0,0 +1,171 @@
+-- 执行计划回归校验：按应用实际发出的参数化语句执行一遍，再从计划缓存中检查是否命中预期索引
+-- 每条语句带 /* plan-check:<标记> */ 注释用于定位缓存计划；任一未命中则 RAISERROR 让 sqlcmd -b 返回非零
+SET NOCOUNT ON;
+DBCC FREEPROCCACHE WITH NO_INFOMSGS;
+GO
+
+-- 以下语句与仓储实际发出的 SQL 保持一致（jOOQ 默认方言渲染，JDBC 参数 ? 对应 @P0、@P1...），
+-- 修改仓储查询时需同步修改这里，否则校验的是无人执行的语句
+
+-- 维修记录列表：发生时间范围 + 是否修复，按 occurAt 倒序，页数据与总数同一条语句返回
+-- （RepairRecordRepository.fetchRecordPage，includeTotal = true）
+EXEC sp_executesql
+    N'/* plan-check:repair_list_occur_at */
+      select "smtBackend"."repair_record"."id", "smtBackend"."repair_record"."occur_at",
+        "smtBackend"."repair_record"."shift", "smtBackend"."repair_record"."factory_name",
+        "smtBackend"."repair_record"."workshop_name", "smtBackend"."repair_record"."line_name",
+        "smtBackend"."repair_record"."machine_no",
+        "smtBackend"."repair_record"."abnormal_category_name",
+        "smtBackend"."repair_record"."abnormal_type_name",
+        "smtBackend"."repair_record"."abnormal_desc", "smtBackend"."repair_record"."solution",
+        "smtBackend"."repair_record"."is_fixed", "smtBackend"."repair_record"."fixed_at",
+        "smtBackend"."repair_record"."repair_minutes",
+        "smtBackend"."repair_record"."down_minutes", "smtBackend"."repair_record"."team_name",
+        "smtBackend"."repair_record"."responsible_person_name", count(*) over () as
+        "total_count" from "smtBackend"."repair_record" where (1=1 and
+        "smtBackend"."repair_record"."occur_at" >= @P0 and
+        "smtBackend"."repair_record"."occur_at" <= @P1 and
+        "smtBackend"."repair_record"."is_fixed" = @P2) order by
+        "smtBackend"."repair_record"."occur_at" desc offset @P3 rows fetch next @P4 rows only',
+    N'@P0 datetime2, @P1 datetime2, @P2 bit, @P3 int, @P4 int',
+    @P0 = '2025-12-01', @P1 = '2025-12-07', @P2 = 1, @P3 = 0, @P4 = 20;
+
+-- 维修记录列表：线别 + 机台号（机台履历），默认按 id 倒序
+EXEC sp_executesql
+    N'/* plan-check:repair_list_line_machine */
+      select "smtBackend"."repair_record"."id", "smtBackend"."repair_record"."occur_at",
+        "smtBackend"."repair_record"."shift", "smtBackend"."repair_record"."factory_name",
+        "smtBackend"."repair_record"."workshop_name", "smtBackend"."repair_record"."line_name",
+        "smtBackend"."repair_record"."machine_no",
+        "smtBackend"."repair_record"."abnormal_category_name",
+        "smtBackend"."repair_record"."abnormal_type_name",
+        "smtBackend"."repair_record"."abnormal_desc", "smtBackend"."repair_record"."solution",
+        "smtBackend"."repair_record"."is_fixed", "smtBackend"."repair_record"."fixed_at",
+        "smtBackend"."repair_record"."repair_minutes",
+        "smtBackend"."repair_record"."down_minutes", "smtBackend"."repair_record"."team_name",
+        "smtBackend"."repair_record"."responsible_person_name", count(*) over () as
+        "total_count" from "smtBackend"."repair_record" where (1=1 and
+        "smtBackend"."repair_record"."line_name" = @P0 and
+        "smtBackend"."repair_record"."machine_no" = @P1) order by
+        "smtBackend"."repair_record"."id" desc offset @P2 rows fetch next @P3 rows only',
+    N'@P0 nvarchar(4000), @P1 nvarchar(4000), @P2 int, @P3 int',
+    @P0 = N'L7', @P1 = N'M7', @P2 = 0, @P3 = 20;
+
+-- 维修记录计数：修复时间范围（RepairRecordRepository.count，游标分页 withTotal）
+EXEC sp_executesql
+    N'/* plan-check:repair_count_fixed_at */
+      select count(*) from "smtBackend"."repair_record" where (1=1 and
+        "smtBackend"."repair_record"."fixed_at" >= @P0 and
+        "smtBackend"."repair_record"."fixed_at" <= @P1)',
+    N'@P0 datetime2, @P1 datetime2',
+    @P0 = '2025-12-01', @P1 = '2025-12-07';
+
+-- 维修记录计数：是否修复 + 组别（buildCondition 中 is_fixed 在 team_name 之前追加）
+EXEC sp_executesql
+    N'/* plan-check:repair_count_team */
+      select count(*) from "smtBackend"."repair_record" where (1=1 and
+        "smtBackend"."repair_record"."is_fixed" = @P0 and
+        "smtBackend"."repair_record"."team_name" = @P1)',
+    N'@P0 bit, @P1 nvarchar(4000)',
+    @P0 = 0, @P1 = N'T3';
+
+-- 维修人员回填（RepairRecordRepository.fetchRepairPersonNameMap）
+EXEC sp_executesql
+    N'/* plan-check:repair_person_by_record */
+      select "smtBackend"."repair_record_person"."repair_record_id",
+        "smtBackend"."repair_record_person"."person_name" from
+        "smtBackend"."repair_record_person" where
+        "smtBackend"."repair_record_person"."repair_record_id" in (@P0, @P1, @P2, @P3, @P4)',
+    N'@P0 bigint, @P1 bigint, @P2 bigint, @P3 bigint, @P4 bigint',
+    @P0 = 101, @P1 = 102, @P2 = 103, @P3 = 104, @P4 = 105;
+
+-- 每日产能导出：日期范围（ProductionDailyRepository.streamProcessesForExport）
+EXEC sp_executesql
+    N'/* plan-check:production_export_range */
+      select "smtBackend"."production_daily_process"."id" as "id",
+        "smtBackend"."production_daily_process"."header_id" as "headerId",
+        "smtBackend"."production_daily_header"."prod_date" as "prodDate",
+        "smtBackend"."production_daily_header"."shift" as "shift",
+        "smtBackend"."production_daily_header"."factory_name" as "factoryName",
+        "smtBackend"."production_daily_header"."workshop_name" as "workshopName",
+        "smtBackend"."production_daily_header"."line_name" as "lineName",
+        "smtBackend"."production_daily_process"."machine_no" as "machineNo",
+        "smtBackend"."production_daily_process"."process_name" as "processName",
+        "smtBackend"."production_daily_process"."product_code" as "productCode",
+        "smtBackend"."production_daily_process"."series_name" as "seriesName",
+        "smtBackend"."production_daily_process"."ct" as "ct",
+        "smtBackend"."production_daily_process"."equipment_count" as "equipmentCount",
+        "smtBackend"."production_daily_process"."run_minutes" as "runMinutes",
+        "smtBackend"."production_daily_process"."target_output" as "targetOutput",
+        "smtBackend"."production_daily_process"."actual_output" as "actualOutput",
+        "smtBackend"."production_daily_process"."gap" as "gap",
+        "smtBackend"."production_daily_process"."achievement_rate" as "achievementRate",
+        "smtBackend"."production_daily_process"."down_minutes" as "downMinutes",
+        "smtBackend"."production_daily_process"."fa" as "fa",
+        "smtBackend"."production_daily_process"."ca" as "ca" from
+        "smtBackend"."production_daily_process" join "smtBackend"."production_daily_header" on
+        "smtBackend"."production_daily_process"."header_id" =
+        "smtBackend"."production_daily_header"."id" where (1=1 and
+        "smtBackend"."production_daily_header"."prod_date" >= @P0 and
+        "smtBackend"."production_daily_header"."prod_date" <= @P1) order by
+        "smtBackend"."production_daily_header"."prod_date" asc,
+        "smtBackend"."production_daily_header"."factory_name" asc,
+        "smtBackend"."production_daily_header"."workshop_name" asc,
+        "smtBackend"."production_daily_header"."line_name" asc,
+        "smtBackend"."production_daily_header"."shift" asc,
+        "smtBackend"."production_daily_process"."process_name" asc,
+        "smtBackend"."production_daily_process"."machine_no" asc',
+    N'@P0 date, @P1 date',
+    @P0 = '2025-12-01', @P1 = '2025-12-07';
+
+-- 维修记录同步：INSERT ... SELECT 内的反连接（RepairRecordRepository.insertRecordsForProcesses），
+-- 在事务中执行后回滚，不影响其余校验使用的数据
+BEGIN TRANSACTION;
+EXEC sp_executesql
+    N'/* plan-check:repair_sync_anti_join */
+      insert into smtBackend.repair_record ([occur_at], [shift], [factory_name],
+        [workshop_name], [line_name], [machine_no], [abnormal_desc], [is_fixed],
+        [down_minutes], [source_process_id])
+        select cast(h.[prod_date] as datetime2), h.[shift], h.[factory_name],
+        h.[workshop_name], h.[line_name], p.[machine_no], p.[fa], 0, p.[down_minutes],
+        p.[id]
+        from smtBackend.production_daily_process p
+        join smtBackend.production_daily_header h on h.[id] = p.[header_id]
+        where p.[id] in (select cast([value] as bigint) from string_split(@P0, '',''))
+        and p.[fa] is not null
+        and not exists (select 1 from smtBackend.repair_record r
+        where r.[source_process_id] = p.[id])',
+    N'@P0 nvarchar(4000)',
+    @P0 = N'1,2,3,4,5,6,7,8,9,10';
+ROLLBACK TRANSACTION;
+GO
+
+-- 校验：标记对应的缓存计划中必须出现预期索引
+DECLARE @expected TABLE (marker NVARCHAR(64), index_name NVARCHAR(128));
+INSERT INTO @expected (marker, index_name)
+VALUES (N'repair_list_occur_at', N'IX_repair_record_occur_at'),
+       (N'repair_list_line_machine', N'IX_repair_record_line_machine'),
+       (N'repair_count_fixed_at', N'IX_repair_record_fixed_at'),
+       (N'repair_count_team', N'IX_repair_record_team_occur'),
+       (N'repair_person_by_record', N'IX_repair_record_person_record'),
+       (N'production_export_range', N'UQ_production_daily_header_key'),
+       (N'repair_sync_anti_join', N'IX_repair_record_source_process');
+
+SELECT e.marker,
+       e.index_name,
+       CASE WHEN EXISTS (
+           SELECT 1
+           FROM sys.dm_exec_query_stats qs
+           CROSS APPLY sys.dm_exec_sql_text(qs.sql_handle) st
+           CROSS APPLY sys.dm_exec_query_plan(qs.plan_handle) qp
+           WHERE st.text LIKE N'%plan-check:' + e.marker + N' %'
+             AND CAST(qp.query_plan AS NVARCHAR(MAX)) LIKE N'%Index="[[]' + e.index_name + N']"%'
+       ) THEN 1 ELSE 0 END AS hit
+INTO #plan_check_result
+FROM @expected e;
+
+SELECT marker, index_name, hit FROM #plan_check_result ORDER BY marker;
+
+IF EXISTS (SELECT 1 FROM #plan_check_result WHERE hit = 0)
+    RAISERROR (N'执行计划未命中预期索引，请检查上方 hit = 0 的语句', 16, 1);
+GO
@@ -0,0 +1,57 @@
+-- 执行计划校验用造数脚本：数据量足以让优化器在索引与全表扫描之间做出真实选择
+SET NOCOUNT ON;
+
+-- 维修记录：50000 条，约 15 分钟一条，40 条线别 / 400 台机台 / 20 个组别，10% 未修复
+;WITH n AS (
+    SELECT TOP (50000) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i
+    FROM sys.all_objects a CROSS JOIN sys.all_objects b
+)
+INSERT INTO smtBackend.repair_record
+    ([occur_at], [shift], [factory_name], [workshop_name], [line_name], [machine_no],
+     [team_name], [abnormal_desc], [is_fixed], [fixed_at], [repair_minutes])
+SELECT DATEADD(MINUTE, -CAST(i AS INT) * 15, '2026-01-01'),
+       CASE WHEN i % 2 = 0 THEN N'DAY' ELSE N'NIGHT' END,
+       N'F' + CAST(i % 3 AS NVARCHAR(8)),
+       N'W' + CAST(i % 6 AS NVARCHAR(8)),
+       N'L' + CAST(i % 40 AS NVARCHAR(8)),
+       N'M' + CAST(i % 400 AS NVARCHAR(8)),
+       N'T' + CAST(i % 20 AS NVARCHAR(8)),
+       N'plan-check',
+       CASE WHEN i % 10 = 0 THEN 0 ELSE 1 END,
+       CASE WHEN i % 10 = 0 THEN NULL ELSE DATEADD(MINUTE, -CAST(i AS INT) * 15 + 30, '2026-01-01') END,
+       CASE WHEN i % 10 = 0 THEN NULL ELSE 30 END
+FROM n;
+
+-- 维修人员：每条记录 2 人
+INSERT INTO smtBackend.repair_record_person ([repair_record_id], [person_name])
+SELECT r.[id], N'P' + CAST((r.[id] + k.k) % 50 AS NVARCHAR(8))
+FROM smtBackend.repair_record r
+CROSS JOIN (VALUES (0), (1)) k(k);
+
+-- 每日产能：365 天 × 2 班 × 4 条线别，每个表头 5 个制程段
+;WITH d AS (
+    SELECT TOP (365) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i
+    FROM sys.all_objects
+)
+INSERT INTO smtBackend.production_daily_header
+    ([prod_date], [shift], [factory_name], [workshop_name], [line_name])
+SELECT DATEADD(DAY, -CAST(d.i AS INT), '2026-01-01'), s.shift, N'F0', N'W0', N'L' + CAST(l.l AS NVARCHAR(8))
+FROM d
+CROSS JOIN (VALUES (N'DAY'), (N'NIGHT')) s(shift)
+CROSS JOIN (VALUES (0), (1), (2), (3)) l(l);
+
+INSERT INTO smtBackend.production_daily_process
+    ([header_id], [machine_no], [process_name], [product_code], [series_name], [ct],
+     [equipment_count], [run_minutes], [target_output], [actual_output], [down_minutes])
+SELECT h.[id], N'M' + CAST(p.p AS NVARCHAR(8)), N'PROC' + CAST(p.p AS NVARCHAR(8)), N'PN', N'S',
+       12.50, 1, 600, 2880, 2800, 0
+FROM smtBackend.production_daily_header h
+CROSS JOIN (VALUES (0), (1), (2), (3), (4)) p(p);
+
+-- 约 10% 的制程段填写 FA，供维修记录同步的反连接校验
+UPDATE smtBackend.production_daily_process SET [fa] = N'plan-check FA' WHERE [id] % 10 = 3;
+
+UPDATE STATISTICS smtBackend.repair_record WITH FULLSCAN;
+UPDATE STATISTICS smtBackend.repair_record_person WITH FULLSCAN;
+UPDATE STATISTICS smtBackend.production_daily_header WITH FULLSCAN;
+UPDATE STATISTICS smtBackend.production_daily_process WITH FULLSCAN;
@@ -0,0 +1,38 @@
+package org.jdk.project.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jdk.project.dto.production.ProductionDailyProcessViewDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** 导出行生成（明细 + 制程段合计 + 版式）的耗时与分配量。 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BuildExportDataBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int rows;
+
+  private ProductionDailyService service;
+  private List<ProductionDailyProcessViewDto> records;
+
+  @Setup
+  public void setUp() {
+    // buildExportData 不访问数据库，依赖传 null 即可
+    service = new ProductionDailyService(null, null, null);
+    records = ExportBenchmarkData.processes(rows);
+  }
+
+  @Benchmark
+  public ProductionDailyService.ExportData buildExportData() {
+    return service.buildExportData(records);
+  }
+}
@@ -0,0 +1,52 @@
+package org.jdk.project.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.jdk.project.dto.production.ProductionDailyProcessViewDto;
+
+/**
+ * 基准测试造数：按导出查询的排序（日期/厂区/车间/线别）生成有序明细。
+ *
+ * <p>每个分组 20 行：2 个班别 × 5 个制程段 × 2 台机台，8 条线别轮换后日期递增。
+ */
+final class ExportBenchmarkData {
+
+  private static final int ROWS_PER_GROUP = 20;
+  private static final int LINES = 8;
+  private static final LocalDate BASE_DATE = LocalDate.of(2025, 1, 1);
+
+  private ExportBenchmarkData() {}
+
+  static List<ProductionDailyProcessViewDto> processes(int rows) {
+    List<ProductionDailyProcessViewDto> records = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      int group = i / ROWS_PER_GROUP;
+      int inGroup = i % ROWS_PER_GROUP;
+      ProductionDailyProcessViewDto record = new ProductionDailyProcessViewDto();
+      record.setId((long) i + 1);
+      record.setHeaderId((long) group * 2 + inGroup / 10 + 1);
+      record.setProdDate(BASE_DATE.plusDays(group / LINES));
+      record.setShift(inGroup < 10 ? "DAY" : "NIGHT");
+      record.setFactoryName("一厂");
+      record.setWorkshopName("SMT车间");
+      record.setLineName("L" + (group % LINES));
+      record.setProcessName("制程" + (inGroup % 10) / 2);
+      record.setMachineNo("M" + (inGroup % 2));
+      record.setProductCode("PN-" + (i % 50));
+      record.setSeriesName("S" + (i % 5));
+      record.setCt(BigDecimal.valueOf(1250, 2));
+      record.setEquipmentCount(2);
+      record.setRunMinutes(600);
+      record.setTargetOutput(2880);
+      record.setActualOutput(2800 + i % 100);
+      record.setGap(record.getActualOutput() - record.getTargetOutput());
+      record.setAchievementRate(BigDecimal.valueOf(9722, 2));
+      record.setDownMinutes(i % 7 == 0 ? 30 : 0);
+      record.setFa(i % 7 == 0 ? "抛料" : null);
+      records.add(record);
+    }
+    return records;
+  }
+}
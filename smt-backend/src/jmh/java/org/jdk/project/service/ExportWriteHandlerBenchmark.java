@@ -0,0 +1,80 @@
+package org.jdk.project.service;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.write.builder.ExcelWriterBuilder;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jdk.project.dto.production.ProductionDailyExportDto;
+import org.jdk.project.dto.production.ProductionDailyProcessViewDto;
+import org.jdk.project.utils.excel.GroupColMergeStrategy;
+import org.jdk.project.utils.excel.MergedRegionRegistry;
+import org.jdk.project.utils.excel.SummaryRowMergeStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * EasyExcel 写入处理器的耗时与分配量。
+ *
+ * <p>handlers 为 none 时只测 EasyExcel 本身写出，groupMerge 为按分组列纵向合并的
+ * GroupColMergeStrategy，mergeChain 再加上共用合并区域索引的 SummaryRowMergeStrategy，layout 为
+ * ProductionDailyService 导出使用的 ExportLayoutWriteHandler（含版式计算）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportWriteHandlerBenchmark {
+
+  @Param({"10000", "100000"})
+  private int rows;
+
+  @Param({"none", "groupMerge", "mergeChain", "layout"})
+  private String handlers;
+
+  private ProductionDailyService service;
+  private List<ProductionDailyProcessViewDto> records;
+  private List<ProductionDailyExportDto> exportData;
+
+  @Setup
+  public void setUp() {
+    service = new ProductionDailyService(null, null, null);
+    records = ExportBenchmarkData.processes(rows);
+    exportData = service.buildExportData(records).rows();
+  }
+
+  @Benchmark
+  public void write() {
+    if ("layout".equals(handlers)) {
+      // 版式在生成导出行时计算，计入构建耗时
+      ProductionDailyService.ExportData data = service.buildExportData(records);
+      service
+          .exportWriterBuilder(OutputStream.nullOutputStream(), data.layout())
+          .sheet("每日产能")
+          .doWrite(data.rows());
+      return;
+    }
+    ExcelWriterBuilder builder =
+        EasyExcel.write(OutputStream.nullOutputStream(), ProductionDailyExportDto.class);
+    boolean chain = "mergeChain".equals(handlers);
+    if (chain || "groupMerge".equals(handlers)) {
+      MergedRegionRegistry registry = new MergedRegionRegistry();
+      builder
+          .registerWriteHandler(
+              new GroupColMergeStrategy(
+                  1, new int[] {0, 1, 2, 3}, new int[] {0, 1, 2, 3}, 5, "合计", registry))
+          .registerWriteHandler(
+              new GroupColMergeStrategy(
+                  1, new int[] {4}, new int[] {0, 1, 2, 3, 4}, null, null, registry));
+      if (chain) {
+        builder.registerWriteHandler(new SummaryRowMergeStrategy(1, 5, "合计", 0, 11, registry));
+      }
+    }
+    builder.sheet("每日产能").doWrite(exportData);
+  }
+}
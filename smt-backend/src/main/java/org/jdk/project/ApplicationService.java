@@ -2,12 +2,14 @@ package org.jdk.project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 应用入口类。
  *
- * <p>- 负责启动 Spring Boot 应用； - 指定扫描包，包含业务包与 jOOQ 代码生成包。
+ * <p>- 负责启动 Spring Boot 应用； - 指定扫描包，包含业务包与 jOOQ 代码生成包； - 启用定时任务（导出文件清理）。
  */
+@EnableScheduling
 @SpringBootApplication(scanBasePackages = {"org.jdk.project", "org.jooq.generated"})
 public class ApplicationService {
 
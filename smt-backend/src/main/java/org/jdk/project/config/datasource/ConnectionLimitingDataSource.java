@@ -0,0 +1,112 @@
+package org.jdk.project.config.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 限制并发占用连接数的数据源包装。
+ *
+ * <p>获取连接前先取得许可，连接关闭时归还。许可数与连接池大小一致，虚拟线程数量不受限时，多余的请求在公平信号量上排队，而不是同时涌入连接池等待。
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+
+  private final long acquireTimeoutMillis;
+
+  /**
+   * @param target 实际数据源
+   * @param maxConnections 最大并发连接数（取连接池大小）
+   * @param acquireTimeoutMillis 等待许可的超时时间，单位：毫秒
+   */
+  public ConnectionLimitingDataSource(
+      DataSource target, int maxConnections, long acquireTimeoutMillis) {
+    super(target);
+    this.permits = new Semaphore(maxConnections, true);
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return wrap(super.getConnection());
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return wrap(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  /** 当前可用许可数。 */
+  public int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException(
+            "Timed out after " + acquireTimeoutMillis + "ms waiting for a database permit");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted waiting for a database permit", ex);
+    }
+  }
+
+  private Connection wrap(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "close" -> {
+                  try {
+                    connection.close();
+                  } finally {
+                    // 重复 close 只归还一次
+                    if (released.compareAndSet(false, true)) {
+                      permits.release();
+                    }
+                  }
+                  return null;
+                }
+                case "equals" -> {
+                  return proxy == args[0];
+                }
+                case "hashCode" -> {
+                  return System.identityHashCode(proxy);
+                }
+                default -> {
+                  // 其余方法直接委托
+                }
+              }
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+              }
+            });
+  }
+}
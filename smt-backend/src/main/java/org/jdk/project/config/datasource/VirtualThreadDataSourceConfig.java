@@ -0,0 +1,39 @@
+package org.jdk.project.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 虚拟线程模式下的数据源并发限制。
+ *
+ * <p>仅在 spring.threads.virtual.enabled=true（virtual-threads profile）时生效：把 Hikari 数据源包装为
+ * {@link ConnectionLimitingDataSource}，许可数等于连接池大小。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadDataSourceConfig {
+
+  @Bean
+  public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+      @Value("${db.permit-timeout-ms:30000}") long permitTimeoutMillis) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikari) {
+          int maxConnections = hikari.getMaximumPoolSize();
+          log.info("limit concurrent database access to {} connections", maxConnections);
+          return new ConnectionLimitingDataSource(
+              (DataSource) hikari, maxConnections, permitTimeoutMillis);
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,72 @@
+package org.jdk.project.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 导出分阶段耗时统计，记录到 {@value #PHASE_TIMER}，按导出类型与阶段打标签。
+ *
+ * <p>阶段：read（读取数据并生成导出行）、write（EasyExcel 写入行）、finish（收尾并输出文件）。 读取与写入交替进行，由 {@link
+ * ExportTimer} 累计各阶段耗时，导出成功后一次记录。
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportMetrics {
+
+  public static final String PHASE_TIMER = "smt.export.phase";
+
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * 开始一次导出计时。
+   *
+   * @param export 导出类型
+   */
+  public ExportTimer start(String export) {
+    return new ExportTimer(export);
+  }
+
+  private void record(String export, String phase, long nanos) {
+    Timer.builder(PHASE_TIMER)
+        .tag("export", export)
+        .tag("phase", phase)
+        .register(meterRegistry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** 单次导出的分阶段计时，非线程安全。 */
+  public final class ExportTimer {
+
+    private final String export;
+    private final long startNanos = System.nanoTime();
+    private long writeNanos;
+
+    private ExportTimer(String export) {
+      this.export = export;
+    }
+
+    /** 执行并累计写入阶段耗时。 */
+    public void write(Runnable action) {
+      long start = System.nanoTime();
+      try {
+        action.run();
+      } finally {
+        writeNanos += System.nanoTime() - start;
+      }
+    }
+
+    /** 执行收尾阶段并记录全部阶段耗时，其余时间计入读取阶段。 */
+    public void finish(Runnable action) {
+      long start = System.nanoTime();
+      action.run();
+      long end = System.nanoTime();
+      long finishNanos = end - start;
+      record(export, "read", Math.max(0, end - startNanos - writeNanos - finishNanos));
+      record(export, "write", writeNanos);
+      record(export, "finish", finishNanos);
+    }
+  }
+}
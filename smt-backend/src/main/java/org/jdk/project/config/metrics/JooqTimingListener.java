@@ -0,0 +1,63 @@
+package org.jdk.project.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+
+/**
+ * jOOQ 语句执行耗时统计。
+ *
+ * <p>- 每条语句的执行耗时（不含结果集遍历）记录到 {@value #QUERY_TIMER}，按发起的仓储方法与语句类型打标签； - 超过阈值的语句输出慢查询日志。
+ */
+@Slf4j
+public class JooqTimingListener implements ExecuteListener {
+
+  public static final String QUERY_TIMER = "smt.jooq.query";
+
+  private static final String START_KEY = JooqTimingListener.class.getName() + ".start";
+  private static final int SLOW_SQL_LOG_LENGTH = 2000;
+
+  private final transient MeterRegistry meterRegistry;
+
+  private final long slowQueryNanos;
+
+  /**
+   * @param meterRegistry 指标注册表
+   * @param slowQueryMillis 慢查询日志阈值，单位：毫秒，小于等于 0 时不输出
+   */
+  public JooqTimingListener(MeterRegistry meterRegistry, long slowQueryMillis) {
+    this.meterRegistry = meterRegistry;
+    this.slowQueryNanos = slowQueryMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowQueryMillis) : 0;
+  }
+
+  @Override
+  public void executeStart(ExecuteContext ctx) {
+    ctx.data(START_KEY, System.nanoTime());
+  }
+
+  @Override
+  public void executeEnd(ExecuteContext ctx) {
+    Object start = ctx.data(START_KEY);
+    if (!(start instanceof Long startNanos)) {
+      return;
+    }
+    long elapsed = System.nanoTime() - startNanos;
+    String method = RepositoryMethodHolder.current();
+    Timer.builder(QUERY_TIMER)
+        .tag("method", method)
+        .tag("type", ctx.type().name())
+        .register(meterRegistry)
+        .record(elapsed, TimeUnit.NANOSECONDS);
+    if (slowQueryNanos > 0 && elapsed >= slowQueryNanos) {
+      log.warn(
+          "slow query {}ms in {}: {}",
+          TimeUnit.NANOSECONDS.toMillis(elapsed),
+          method,
+          StringUtils.abbreviate(ctx.sql(), SLOW_SQL_LOG_LENGTH));
+    }
+  }
+}
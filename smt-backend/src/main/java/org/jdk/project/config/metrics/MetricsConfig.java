@@ -0,0 +1,20 @@
+package org.jdk.project.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jooq.ExecuteListenerProvider;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** 耗时统计配置：注册 jOOQ 执行监听器（由 Spring Boot jOOQ 自动配置加入 DSLContext）。 */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public ExecuteListenerProvider jooqTimingListenerProvider(
+      MeterRegistry meterRegistry, @Value("${metrics.slow-query-ms:500}") long slowQueryMillis) {
+    return new DefaultExecuteListenerProvider(
+        new JooqTimingListener(meterRegistry, slowQueryMillis));
+  }
+}
@@ -0,0 +1,34 @@
+package org.jdk.project.config.metrics;
+
+/** 当前线程正在执行的仓储方法（类名.方法名），由 {@link TimingAspect} 维护。 */
+final class RepositoryMethodHolder {
+
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private RepositoryMethodHolder() {}
+
+  /**
+   * 进入仓储方法。
+   *
+   * @return 进入前的值，退出时恢复
+   */
+  static String enter(String method) {
+    String previous = CURRENT.get();
+    CURRENT.set(method);
+    return previous;
+  }
+
+  static void exit(String previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  /** 当前仓储方法，不在仓储方法内时返回 unknown。 */
+  static String current() {
+    String method = CURRENT.get();
+    return method == null ? "unknown" : method;
+  }
+}
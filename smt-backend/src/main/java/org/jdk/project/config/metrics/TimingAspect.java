@@ -0,0 +1,58 @@
+package org.jdk.project.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 服务层耗时统计与仓储方法标记。
+ *
+ * <p>- 每个 @Service 的 public 方法记录到 {@value #SERVICE_TIMER}，按类、方法与异常类型打标签；
+ * - 进入 @Repository 方法时记录当前方法，供 {@link JooqTimingListener} 给 SQL 耗时打标签。
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TimingAspect {
+
+  public static final String SERVICE_TIMER = "smt.service";
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("@within(org.springframework.stereotype.Service) && execution(public * *(..))")
+  public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable ex) {
+      exception = ex.getClass().getSimpleName();
+      throw ex;
+    } finally {
+      sample.stop(
+          Timer.builder(SERVICE_TIMER)
+              .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+              .tag("method", joinPoint.getSignature().getName())
+              .tag("exception", exception)
+              .register(meterRegistry));
+    }
+  }
+
+  @Around("@within(org.springframework.stereotype.Repository) && execution(public * *(..))")
+  public Object markRepositoryMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+    String previous =
+        RepositoryMethodHolder.enter(
+            joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "."
+                + joinPoint.getSignature().getName());
+    try {
+      return joinPoint.proceed();
+    } finally {
+      RepositoryMethodHolder.exit(previous);
+    }
+  }
+}
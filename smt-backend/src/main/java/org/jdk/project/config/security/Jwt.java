@@ -4,12 +4,21 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -20,7 +29,8 @@ import org.springframework.web.util.WebUtils;
 /**
  * JWT 工具组件。
  *
- * <p>- 负责创建、校验、解析 JWT； - 将 JWT 写入/移除到 HTTP Cookie 中。
+ * <p>- 负责创建、校验、解析 JWT，签名算法实例全局复用； - 将 JWT 写入/移除到 HTTP Cookie 中； - 近期校验通过的令牌按摘要缓存
+ * subject 与过期时间，同一浏览器的后续请求不再重复验签与解析。
  */
 @Slf4j
 @Component
@@ -35,45 +45,137 @@ public class Jwt {
 
   private final JWTVerifier verifier;
 
+  @Getter(AccessLevel.NONE)
+  private final Algorithm algorithm;
+
+  // 令牌 SHA-256 摘要 -> 校验结果，不在内存中保留令牌原文
+  @Getter(AccessLevel.NONE)
+  private final Cache<String, VerifiedToken> verifiedTokens;
+
+  /** 本次请求已续期时设置的请求属性，避免同一请求重复签发。 */
+  public static final String RENEWED_ATTRIBUTE = Jwt.class.getName() + ".RENEWED";
+
+  /** 认证过滤器校验通过后保存 {@link VerifiedToken} 的请求属性。 */
+  public static final String VERIFIED_ATTRIBUTE = Jwt.class.getName() + ".VERIFIED";
+
+  // 登录时间声明，续期时沿用，用于限制会话最长时长
+  private static final String AUTH_TIME_CLAIM = "auth_time";
+
+  // 令牌已用时长超过有效期的该比例后，下一次请求时续期
+  private final double renewAfterFraction;
+
+  // 自登录起的会话最长时长，到达后不再续期
+  private final Duration sessionMaxAge;
+
+  /**
+   * 校验通过的令牌信息。
+   *
+   * @param authenticatedAt 登录时间（续期不变），旧令牌无该声明时取签发时间
+   */
+  public record VerifiedToken(
+      String subject, Instant issuedAt, Instant expiresAt, Instant authenticatedAt) {}
+
   /**
    * 通过配置构造 JWT 校验器。
    *
    * @param secret 签名密钥
    * @param expirationMin 过期时间，单位：分钟
    * @param cookieName Cookie 名称
+   * @param cacheMaxSize 已校验令牌缓存的最大条数
+   * @param cacheTtlSeconds 已校验令牌缓存的最长保留时间，单位：秒（令牌过期后立即失效）
+   * @param renewAfterFraction 滑动续期阈值（0~1），令牌已用时长超过有效期的该比例后续期
+   * @param sessionMaxAgeMinutes 自登录起的会话最长时长，单位：分钟，续期的令牌不会超过该时限
+   * @param meterRegistry 指标注册表
    */
   public Jwt(
       @Value("${jwt.secret}") String secret,
       @Value("${jwt.expiration-min}") int expirationMin,
-      @Value("${jwt.cookie-name}") String cookieName) {
-    this.verifier = JWT.require(Algorithm.HMAC256(secret)).build();
+      @Value("${jwt.cookie-name}") String cookieName,
+      @Value("${jwt.verified-cache.max-size:10000}") long cacheMaxSize,
+      @Value("${jwt.verified-cache.ttl-seconds:300}") long cacheTtlSeconds,
+      @Value("${jwt.renew-after-fraction:0.5}") double renewAfterFraction,
+      @Value("${jwt.session-max-age-min:720}") long sessionMaxAgeMinutes,
+      MeterRegistry meterRegistry) {
+    if (renewAfterFraction <= 0 || renewAfterFraction > 1) {
+      throw new IllegalArgumentException("jwt.renew-after-fraction must be in (0, 1]");
+    }
+    if (sessionMaxAgeMinutes < expirationMin) {
+      throw new IllegalArgumentException("jwt.session-max-age-min must be >= jwt.expiration-min");
+    }
+    this.renewAfterFraction = renewAfterFraction;
+    this.sessionMaxAge = Duration.ofMinutes(sessionMaxAgeMinutes);
+    this.algorithm = Algorithm.HMAC256(secret);
+    this.verifier = JWT.require(algorithm).build();
     this.secret = secret;
     this.expirationMin = expirationMin;
     this.cookieName = cookieName;
+    this.verifiedTokens =
+        Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerified");
   }
 
   /**
-   * 提取 JWT 的 subject（通常为用户标识）。
+   * 校验 JWT 并返回 subject 与过期时间；每个令牌只验签、解析一次，之后命中缓存直到过期。
    *
    * @param token JWT 字符串
-   * @return subject
+   * @return 校验结果，无效或已过期返回 null
    */
-  public String getSubject(String token) {
-    return JWT.decode(token).getSubject();
+  public VerifiedToken verify(String token) {
+    String key = digest(token);
+    VerifiedToken cached = verifiedTokens.getIfPresent(key);
+    if (cached != null) {
+      if (cached.expiresAt() == null || cached.expiresAt().isAfter(Instant.now())) {
+        return cached;
+      }
+      verifiedTokens.invalidate(key);
+      return null;
+    }
+    DecodedJWT decoded;
+    try {
+      decoded = verifier.verify(token);
+    } catch (JWTVerificationException e) {
+      return null;
+    }
+    Instant authenticatedAt = decoded.getClaim(AUTH_TIME_CLAIM).asInstant();
+    VerifiedToken verified =
+        new VerifiedToken(
+            decoded.getSubject(),
+            decoded.getIssuedAtAsInstant(),
+            decoded.getExpiresAtAsInstant(),
+            authenticatedAt != null ? authenticatedAt : decoded.getIssuedAtAsInstant());
+    verifiedTokens.put(key, verified);
+    return verified;
   }
 
   /**
-   * 校验 JWT 是否有效。
+   * 判断令牌是否需要滑动续期：已用时长超过有效期的 renewAfterFraction 时返回 true；
+   * 令牌有效期已到达会话最长时限时不再续期。
    *
-   * @param token JWT 字符串
-   * @return 是否通过校验
+   * @param token 校验通过的令牌
+   * @return 是否需要重新签发
    */
-  public Boolean verify(String token) {
+  public boolean shouldRenew(VerifiedToken token) {
+    if (token.issuedAt() == null || token.expiresAt() == null) {
+      return false;
+    }
+    if (!token.expiresAt().isBefore(sessionDeadline(token.authenticatedAt()))) {
+      return false;
+    }
+    long lifetimeMillis = Duration.between(token.issuedAt(), token.expiresAt()).toMillis();
+    Instant renewAt = token.issuedAt().plusMillis((long) (lifetimeMillis * renewAfterFraction));
+    return !Instant.now().isBefore(renewAt);
+  }
+
+  private String digest(String token) {
     try {
-      verifier.verify(token);
-      return Boolean.TRUE;
-    } catch (JWTVerificationException e) {
-      return Boolean.FALSE;
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
     }
   }
 
@@ -92,36 +194,43 @@ public class Jwt {
     }
   }
 
+  private Instant sessionDeadline(Instant authenticatedAt) {
+    return authenticatedAt.plus(sessionMaxAge);
+  }
+
   /**
-   * 生成一个 JWT。
+   * 生成一个 JWT（新会话，登录时间为当前时间）。
    *
    * @param userIdentify 用户标识（写入 subject）
    * @return JWT 字符串
    */
   public String create(String userIdentify) {
+    return create(userIdentify, Instant.now());
+  }
+
+  private String create(String userIdentify, Instant authenticatedAt) {
+    Instant now = Instant.now();
+    Instant expiresAt = now.plus(Duration.ofMinutes(expirationMin));
+    Instant deadline = sessionDeadline(authenticatedAt);
     return JWT.create()
         .withSubject(String.valueOf(userIdentify))
-        .withIssuedAt(new Date())
-        .withExpiresAt(
-            Date.from(
-                LocalDateTime.now()
-                    .plusMinutes(expirationMin)
-                    .atZone(ZoneId.systemDefault())
-                    .toInstant()))
-        .sign(Algorithm.HMAC256(secret));
+        .withIssuedAt(now)
+        .withExpiresAt(expiresAt.isAfter(deadline) ? deadline : expiresAt)
+        .withClaim(AUTH_TIME_CLAIM, authenticatedAt)
+        .sign(algorithm);
   }
 
   /**
    * 构建携带 JWT 的 Cookie。
    *
    * @param request HTTP 请求（用于推断 Cookie Path 与是否 Secure）
-   * @param userIdentify 用户标识
+   * @param token JWT 字符串
    * @return Cookie 对象
    */
-  private Cookie buildJwtCookiePojo(HttpServletRequest request, String userIdentify) {
+  private Cookie buildJwtCookiePojo(HttpServletRequest request, String token) {
     String contextPath = request.getContextPath();
     String cookiePath = StringUtils.isNotEmpty(contextPath) ? contextPath : "/";
-    Cookie cookie = new Cookie(cookieName, create(userIdentify));
+    Cookie cookie = new Cookie(cookieName, token);
     cookie.setPath(cookiePath);
     cookie.setMaxAge(expirationMin * 60);
     cookie.setSecure(request.isSecure());
@@ -138,7 +247,21 @@ public class Jwt {
    */
   public void makeToken(
       HttpServletRequest request, HttpServletResponse response, String userIdentify) {
-    response.addCookie(buildJwtCookiePojo(request, userIdentify));
+    response.addCookie(buildJwtCookiePojo(request, create(userIdentify)));
+  }
+
+  /**
+   * 续期：以原令牌的 subject 与登录时间重新签发 Cookie，并标记本次请求已续期。
+   *
+   * @param request HTTP 请求
+   * @param response HTTP 响应
+   * @param token 校验通过的原令牌
+   */
+  public void renewToken(
+      HttpServletRequest request, HttpServletResponse response, VerifiedToken token) {
+    response.addCookie(
+        buildJwtCookiePojo(request, create(token.subject(), token.authenticatedAt())));
+    request.setAttribute(RENEWED_ATTRIBUTE, Boolean.TRUE);
   }
 
   /**
@@ -17,7 +17,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 /**
  * JWT 认证过滤器。
  *
- * <p>- 从 Cookie 中读取 JWT 并校验； - 校验通过后构造认证对象放入 SecurityContext。
+ * <p>- 从 Cookie 中读取 JWT 并校验； - 校验通过后构造认证对象放入 SecurityContext； - 令牌接近过期时重新签发 Cookie。
  */
 @Slf4j
 @Setter
@@ -34,15 +34,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
     String token = jwt.extract(request);
-    if (StringUtils.isNotEmpty(token) && jwt.verify(token)) {
+    Jwt.VerifiedToken verified = StringUtils.isNotEmpty(token) ? jwt.verify(token) : null;
+    if (verified != null) {
       try {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(jwt.getSubject(token));
+        UserDetails userDetails = userDetailsService.loadUserByUsername(verified.subject());
         JwtAuthenticationToken authenticated =
             JwtAuthenticationToken.authenticated(userDetails, token, userDetails.getAuthorities());
         authenticated.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authenticated);
+        request.setAttribute(Jwt.VERIFIED_ATTRIBUTE, verified);
+        // 滑动续期：仅在令牌用过一定比例后重新签发，多数请求不产生签名开销
+        if (jwt.shouldRenew(verified)) {
+          jwt.renewToken(request, response, verified);
+        }
       } catch (Exception e) {
-        log.error("jwt with invalid user id {}", jwt.getSubject(token), e);
+        log.error("jwt with invalid user id {}", verified.subject(), e);
       }
     }
     filterChain.doFilter(request, response);
@@ -0,0 +1,62 @@
+package org.jdk.project.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Function;
+import org.jdk.project.utils.LocalCacheUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已认证用户详情缓存。
+ *
+ * <p>- 按用户ID缓存 UserDetails（含角色与权限），避免每个请求查询三次数据库； - 容量有界并按写入时间过期； - 命中/未命中等指标通过
+ * actuator 的 cache.* 指标暴露。
+ */
+@Component
+public class UserDetailsCache {
+
+  private static final String CACHE_NAME = "userDetails";
+
+  private final Cache<Long, UserDetails> cache;
+
+  /**
+   * 通过配置构造缓存。
+   *
+   * @param ttlSeconds 过期时间，单位：秒
+   * @param maxSize 最大缓存条数
+   * @param meterRegistry 指标注册表
+   */
+  public UserDetailsCache(
+      @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds,
+      @Value("${security.user-cache.max-size:1000}") long maxSize,
+      MeterRegistry meterRegistry) {
+    this.cache = LocalCacheUtils.newMonitoredCache(CACHE_NAME, ttlSeconds, maxSize, meterRegistry);
+  }
+
+  /**
+   * 读取缓存，未命中时通过 loader 加载并写入。
+   *
+   * @param userId 用户ID
+   * @param loader 加载函数（异常直接抛出，不缓存）
+   * @return 用户详情
+   */
+  public UserDetails get(Long userId, Function<Long, UserDetails> loader) {
+    return cache.get(userId, loader);
+  }
+
+  /**
+   * 失效指定用户的缓存。
+   *
+   * <p>处于事务中时在提交后失效，避免并发请求在提交前重新加载到旧数据。
+   *
+   * @param userId 用户ID
+   */
+  public void evict(Long userId) {
+    if (userId == null) {
+      return;
+    }
+    LocalCacheUtils.invalidateAfterCommit(() -> cache.invalidate(userId));
+  }
+}
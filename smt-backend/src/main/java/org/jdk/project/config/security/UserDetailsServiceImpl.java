@@ -19,15 +19,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
   private final UserRepository userRepository;
 
+  private final UserDetailsCache userDetailsCache;
+
   /**
-   * 根据用户ID加载用户详情（包含角色权限）。
+   * 根据用户ID加载用户详情（包含角色权限），优先读取缓存。
    *
    * @param id 用户ID（字符串形式）
    * @return Spring Security UserDetails
    */
   @Override
   public UserDetails loadUserByUsername(String id) throws UsernameNotFoundException {
-    User dbUser = userRepository.fetchOneById(Long.valueOf(id));
+    return userDetailsCache.get(Long.valueOf(id), this::loadFromDatabase);
+  }
+
+  private UserDetails loadFromDatabase(Long id) {
+    User dbUser = userRepository.fetchOneById(id);
     if (dbUser == null) {
       throw new UsernameNotFoundException(String.format("uid %s user not found", id));
     }
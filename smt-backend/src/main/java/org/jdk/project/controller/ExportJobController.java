@@ -0,0 +1,81 @@
+package org.jdk.project.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.Principal;
+import lombok.RequiredArgsConstructor;
+import org.jdk.project.dto.export.ExportJobDto;
+import org.jdk.project.dto.production.ProductionDailyQueryDto;
+import org.jdk.project.dto.repair.RepairRecordQueryDto;
+import org.jdk.project.service.ExportJobService;
+import org.jdk.project.service.ProductionDailyService;
+import org.jdk.project.service.RepairRecordService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/** 异步导出接口：提交任务、查询状态、下载文件（支持 Range 断点续传）。 */
+@RestController
+@RequestMapping("/export-jobs")
+@RequiredArgsConstructor
+public class ExportJobController {
+
+  private static final MediaType XLSX =
+      MediaType.parseMediaType(
+          "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+  private final ExportJobService exportJobService;
+
+  private final ProductionDailyService productionDailyService;
+
+  private final RepairRecordService repairRecordService;
+
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  @PostMapping("/production-daily")
+  @PreAuthorize("hasRole('PRODUCTION')")
+  public ExportJobDto submitProductionDaily(ProductionDailyQueryDto query, Principal principal) {
+    productionDailyService.validateExportQuery(query);
+    return exportJobService.submit(
+        "production-daily",
+        principal.getName(),
+        query,
+        "每日产能",
+        outputStream -> productionDailyService.export(outputStream, query));
+  }
+
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  @PostMapping("/repair-records")
+  public ExportJobDto submitRepairRecords(RepairRecordQueryDto query, Principal principal) {
+    return exportJobService.submit(
+        "repair-records",
+        principal.getName(),
+        query,
+        "维修记录",
+        outputStream -> repairRecordService.export(outputStream, query));
+  }
+
+  @GetMapping("/{id}")
+  public ExportJobDto get(@PathVariable String id, Principal principal) {
+    return exportJobService.get(id, principal.getName());
+  }
+
+  /** 下载导出文件；返回 Resource，由 Spring MVC 处理 Range 请求（206 分段响应）。 */
+  @GetMapping("/{id}/file")
+  public ResponseEntity<Resource> download(@PathVariable String id, Principal principal) {
+    ExportJobDto job = exportJobService.get(id, principal.getName());
+    Path file = exportJobService.getFile(id, principal.getName());
+    ContentDisposition disposition =
+        ContentDisposition.attachment().filename(job.getFileName(), StandardCharsets.UTF_8).build();
+    return ResponseEntity.ok()
+        .contentType(XLSX)
+        .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+        .body(new FileSystemResource(file));
+  }
+}
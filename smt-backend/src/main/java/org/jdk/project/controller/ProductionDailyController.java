@@ -3,18 +3,27 @@ package org.jdk.project.controller;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.jdk.project.dto.PageRequestDto;
+import org.jdk.project.dto.PageResponseDto;
 import org.jdk.project.dto.production.ProductionDailyBatchRequest;
+import org.jdk.project.dto.production.ProductionDailyImportResultDto;
 import org.jdk.project.dto.production.ProductionDailyQueryDto;
 import org.jdk.project.dto.production.ProductionDailyProcessViewDto;
 import org.jdk.project.dto.production.ProductionDailyRecordExportRequest;
 import org.jdk.project.dto.production.ProductionDailyResponse;
+import org.jdk.project.dto.production.ProductionDailyStatsDto;
+import org.jdk.project.exception.BusinessException;
+import org.jdk.project.service.ProductionDailyImportService;
 import org.jdk.project.service.ProductionDailyService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 /** 每日产能接口（生产端）。 */
 @RestController
@@ -23,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class ProductionDailyController {
 
   private final ProductionDailyService productionDailyService;
+  private final ProductionDailyImportService productionDailyImportService;
 
   @GetMapping
   @PreAuthorize("hasRole('PRODUCTION')")
@@ -43,6 +53,24 @@ public class ProductionDailyController {
     return productionDailyService.saveBatch(request);
   }
 
+  /**
+   * Excel 批量导入（可跨多日、多班别、多线别），返回逐行错误报告。
+   *
+   * <p>按批写入，行数据不会整体加载到内存；但文件内重复校验会记住已出现的唯一键，内存随行数线性增长，
+   * 超过 20 万个唯一键后只校验同一批（500 行）内的重复，跨批重复的行会覆盖先导入的同键行。
+   */
+  @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @PreAuthorize("hasRole('PRODUCTION')")
+  public ProductionDailyImportResultDto importExcel(@RequestParam("file") MultipartFile file)
+      throws IOException {
+    if (file.isEmpty()) {
+      throw new BusinessException("导入文件不能为空");
+    }
+    try (InputStream inputStream = file.getInputStream()) {
+      return productionDailyImportService.importExcel(inputStream);
+    }
+  }
+
   @GetMapping("/export")
   @PreAuthorize("hasRole('PRODUCTION')")
   public void export(HttpServletResponse response, ProductionDailyQueryDto query)
@@ -52,8 +80,30 @@ public class ProductionDailyController {
 
   @GetMapping("/records")
   @PreAuthorize("hasRole('PRODUCTION')")
-  public List<ProductionDailyProcessViewDto> listRecords() {
-    return productionDailyService.listRecords();
+  public PageResponseDto<List<ProductionDailyProcessViewDto>> listRecords(
+      ProductionDailyQueryDto query,
+      @RequestParam(defaultValue = "50") int size,
+      @RequestParam(required = false) String sortBy,
+      @RequestParam(required = false) String cursor) {
+    PageRequestDto pageRequest = new PageRequestDto(1, size);
+    pageRequest.setSortBy(sortBy);
+    return productionDailyService.listRecords(query, pageRequest, cursor);
+  }
+
+  @GetMapping("/stats")
+  @PreAuthorize("hasRole('PRODUCTION')")
+  public List<ProductionDailyStatsDto> stats(
+      ProductionDailyQueryDto query,
+      @RequestParam(defaultValue = "DAY") String period,
+      @RequestParam(defaultValue = "factory,workshop,line") String groupBy) {
+    return productionDailyService.stats(query, period, groupBy);
+  }
+
+  @ResponseStatus(HttpStatus.OK)
+  @PostMapping("/rollup/rebuild")
+  @PreAuthorize("hasRole('ADMIN')")
+  public int rebuildRollup() {
+    return productionDailyService.rebuildRollup();
   }
 
   @PostMapping("/records/export")
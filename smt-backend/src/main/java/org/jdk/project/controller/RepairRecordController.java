@@ -7,6 +7,7 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.jdk.project.dto.PageRequestDto;
 import org.jdk.project.dto.PageResponseDto;
+import org.jdk.project.dto.repair.RepairAnalyticsDto;
 import org.jdk.project.dto.repair.RepairRecordQueryDto;
 import org.jdk.project.dto.repair.RepairRecordRequest;
 import org.jdk.project.dto.repair.RepairRecordViewDto;
@@ -45,6 +46,12 @@ public class RepairRecordController {
     repairRecordService.delete(id);
   }
 
+  @GetMapping("/analytics")
+  public RepairAnalyticsDto analytics(
+      RepairRecordQueryDto query, @RequestParam(defaultValue = "10") int top) {
+    return repairRecordService.analytics(query, top);
+  }
+
   @GetMapping("/{id}")
   public RepairRecordViewDto get(@PathVariable Long id) {
     return repairRecordService.get(id);
@@ -55,9 +62,23 @@ public class RepairRecordController {
       RepairRecordQueryDto query,
       @RequestParam(defaultValue = "1") int page,
       @RequestParam(defaultValue = "20") int size,
-      @RequestParam(required = false) String sortBy) {
+      @RequestParam(required = false) String sortBy,
+      @RequestParam(defaultValue = "true") boolean includeTotal) {
     PageRequestDto pageRequest = new PageRequestDto(page, size);
     pageRequest.setSortBy(sortBy);
-    return repairRecordService.list(query, pageRequest);
+    return repairRecordService.list(query, pageRequest, includeTotal);
+  }
+
+  /** 游标分页：携带 cursor 参数（首页传空字符串）时命中，返回 nextCursor 供下一页使用。 */
+  @GetMapping(params = "cursor")
+  public PageResponseDto<List<RepairRecordViewDto>> listByCursor(
+      RepairRecordQueryDto query,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) String sortBy,
+      @RequestParam(defaultValue = "false") boolean withTotal) {
+    PageRequestDto pageRequest = new PageRequestDto(1, size);
+    pageRequest.setSortBy(sortBy);
+    return repairRecordService.listByCursor(query, pageRequest, cursor, withTotal);
   }
 }
@@ -10,6 +10,7 @@ import org.jdk.project.config.security.Jwt;
 import org.jdk.project.dto.sign.SignInDto;
 import org.jdk.project.dto.sign.SignMeDto;
 import org.jdk.project.dto.user.UserPasswordRequest;
+import org.jdk.project.exception.BusinessException;
 import org.jdk.project.repository.UserRepository;
 import org.jdk.project.service.SignService;
 import org.jdk.project.service.UserAdminService;
@@ -17,7 +18,7 @@ import org.jooq.generated.tables.pojos.User;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-/** 认证接口：登录、登出。 */
+/** 认证接口：登录、登出、续期。 */
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -59,6 +60,26 @@ public class SignController {
     jwt.removeToken(request, response);
   }
 
+  /**
+   * 续期当前登录用户的 JWT Cookie（前端定时调用，空闲页面也不会在班中掉线）。
+   *
+   * <p>与认证过滤器规则一致：仅在令牌用过一定比例后签发，且不超过会话最长时限。
+   *
+   * @param request HTTP 请求
+   * @param response HTTP 响应
+   */
+  @ResponseStatus(HttpStatus.OK)
+  @PostMapping("/refresh")
+  void refresh(HttpServletRequest request, HttpServletResponse response) {
+    if (!(request.getAttribute(Jwt.VERIFIED_ATTRIBUTE) instanceof Jwt.VerifiedToken verified)) {
+      throw new BusinessException("未登录");
+    }
+    // 认证过滤器已在本次请求中续期时不再重复签发
+    if (request.getAttribute(Jwt.RENEWED_ATTRIBUTE) == null && jwt.shouldRenew(verified)) {
+      jwt.renewToken(request, response, verified);
+    }
+  }
+
   /** 获取当前登录用户的基础信息（包含角色与权限）。 */
   @ResponseStatus(HttpStatus.OK)
   @GetMapping("/me")
@@ -91,11 +112,11 @@ public class SignController {
   @PutMapping("/me/password")
   public void changePassword(Principal principal, @RequestBody @Valid UserPasswordRequest request) {
     if (principal == null) {
-      throw new org.jdk.project.exception.BusinessException("未登录");
+      throw new BusinessException("未登录");
     }
     Long userId = toLongId(principal.getName());
     if (userId == null) {
-      throw new org.jdk.project.exception.BusinessException("用户ID无效");
+      throw new BusinessException("用户ID无效");
     }
     userAdminService.changeOwnPassword(userId, request.getNewPassword());
   }
@@ -5,7 +5,10 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.jdk.project.dto.sys.*;
 import org.jdk.project.service.SysMasterService;
+import org.jdk.project.service.SysMasterSnapshot;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,8 +21,9 @@ public class SysMasterController {
   private final SysMasterService sysMasterService;
 
   @GetMapping("/factories")
-  public List<org.jooq.generated.tables.pojos.SysFactory> listFactories() {
-    return sysMasterService.listFactories();
+  public ResponseEntity<List<org.jooq.generated.tables.pojos.SysFactory>> listFactories() {
+    SysMasterSnapshot snapshot = sysMasterService.currentSnapshot();
+    return withEtag(snapshot, snapshot.getFactories());
   }
 
   @ResponseStatus(HttpStatus.CREATED)
@@ -44,9 +48,10 @@ public class SysMasterController {
   }
 
   @GetMapping("/workshops")
-  public List<org.jooq.generated.tables.pojos.SysWorkshop> listWorkshops(
+  public ResponseEntity<List<org.jooq.generated.tables.pojos.SysWorkshop>> listWorkshops(
       @RequestParam(required = false) Long factoryId) {
-    return sysMasterService.listWorkshops(factoryId);
+    SysMasterSnapshot snapshot = sysMasterService.currentSnapshot();
+    return withEtag(snapshot, snapshot.listWorkshops(factoryId));
   }
 
   @ResponseStatus(HttpStatus.CREATED)
@@ -72,9 +77,10 @@ public class SysMasterController {
   }
 
   @GetMapping("/lines")
-  public List<org.jooq.generated.tables.pojos.SysLine> listLines(
+  public ResponseEntity<List<org.jooq.generated.tables.pojos.SysLine>> listLines(
       @RequestParam(required = false) Long workshopId) {
-    return sysMasterService.listLines(workshopId);
+    SysMasterSnapshot snapshot = sysMasterService.currentSnapshot();
+    return withEtag(snapshot, snapshot.listLines(workshopId));
   }
 
   @ResponseStatus(HttpStatus.CREATED)
@@ -99,9 +105,10 @@ public class SysMasterController {
   }
 
   @GetMapping("/machines")
-  public List<org.jooq.generated.tables.pojos.SysMachine> listMachines(
+  public ResponseEntity<List<org.jooq.generated.tables.pojos.SysMachine>> listMachines(
       @RequestParam(required = false) Long lineId) {
-    return sysMasterService.listMachines(lineId);
+    SysMasterSnapshot snapshot = sysMasterService.currentSnapshot();
+    return withEtag(snapshot, snapshot.listMachines(lineId));
   }
 
   @ResponseStatus(HttpStatus.CREATED)
@@ -126,8 +133,10 @@ public class SysMasterController {
   }
 
   @GetMapping("/abnormal-categories")
-  public List<org.jooq.generated.tables.pojos.SysAbnormalCategory> listAbnormalCategories() {
-    return sysMasterService.listAbnormalCategories();
+  public ResponseEntity<List<org.jooq.generated.tables.pojos.SysAbnormalCategory>>
+      listAbnormalCategories() {
+    SysMasterSnapshot snapshot = sysMasterService.currentSnapshot();
+    return withEtag(snapshot, snapshot.getAbnormalCategories());
   }
 
   @ResponseStatus(HttpStatus.CREATED)
@@ -153,9 +162,10 @@ public class SysMasterController {
   }
 
   @GetMapping("/abnormal-types")
-  public List<org.jooq.generated.tables.pojos.SysAbnormalType> listAbnormalTypes(
+  public ResponseEntity<List<org.jooq.generated.tables.pojos.SysAbnormalType>> listAbnormalTypes(
       @RequestParam(required = false) Long abnormalCategoryId) {
-    return sysMasterService.listAbnormalTypes(abnormalCategoryId);
+    SysMasterSnapshot snapshot = sysMasterService.currentSnapshot();
+    return withEtag(snapshot, snapshot.listAbnormalTypes(abnormalCategoryId));
   }
 
   @ResponseStatus(HttpStatus.CREATED)
@@ -181,8 +191,9 @@ public class SysMasterController {
   }
 
   @GetMapping("/teams")
-  public List<org.jooq.generated.tables.pojos.SysTeam> listTeams() {
-    return sysMasterService.listTeams();
+  public ResponseEntity<List<org.jooq.generated.tables.pojos.SysTeam>> listTeams() {
+    SysMasterSnapshot snapshot = sysMasterService.currentSnapshot();
+    return withEtag(snapshot, snapshot.getTeams());
   }
 
   @ResponseStatus(HttpStatus.CREATED)
@@ -207,9 +218,10 @@ public class SysMasterController {
   }
 
   @GetMapping("/people")
-  public List<org.jooq.generated.tables.pojos.SysPerson> listPeople(
+  public ResponseEntity<List<org.jooq.generated.tables.pojos.SysPerson>> listPeople(
       @RequestParam(required = false) Long teamId) {
-    return sysMasterService.listPeople(teamId);
+    SysMasterSnapshot snapshot = sysMasterService.currentSnapshot();
+    return withEtag(snapshot, snapshot.listPeople(teamId));
   }
 
   @ResponseStatus(HttpStatus.CREATED)
@@ -232,4 +244,16 @@ public class SysMasterController {
   public void deletePerson(@PathVariable Long id) {
     sysMasterService.deletePerson(id);
   }
+
+  /**
+   * 以快照版本作为 ETag 返回，浏览器携带 If-None-Match 且未变更时返回 304。
+   *
+   * <p>显式设置 Cache-Control: no-cache，覆盖 Spring Security 默认的 no-store，使浏览器可缓存并协商。
+   */
+  private <T> ResponseEntity<T> withEtag(SysMasterSnapshot snapshot, T body) {
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .eTag(snapshot.getVersion())
+        .body(body);
+  }
 }
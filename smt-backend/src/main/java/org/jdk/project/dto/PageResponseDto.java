@@ -10,9 +10,17 @@ import lombok.*;
  */
 @Data
 public class PageResponseDto<T> {
-  private long total;
+  /** 总条数，调用方选择不统计总数时为空。 */
+  private Long total;
+
   private T data;
 
+  /** 是否还有下一页（未返回时为空）。 */
+  private Boolean hasMore;
+
+  /** 游标分页时下一页的游标，为空表示没有更多数据（页码分页时不使用）。 */
+  private String nextCursor;
+
   /**
    * 构造方法。
    *
@@ -27,6 +35,29 @@ public class PageResponseDto<T> {
     this.data = data;
   }
 
+  /** 返回不含总数的分页结果。 */
+  public static <T> PageResponseDto<T> withoutTotal(@Nullable T data) {
+    PageResponseDto<T> response = new PageResponseDto<>(0, data);
+    response.total = null;
+    return response;
+  }
+
+  /**
+   * 返回游标分页结果，hasMore 由 nextCursor 是否为空决定。
+   *
+   * @param data 当前页数据
+   * @param nextCursor 下一页游标，为空表示没有更多数据
+   * @param total 总条数，未统计时为空
+   */
+  public static <T> PageResponseDto<T> ofCursor(
+      @Nullable T data, @Nullable String nextCursor, @Nullable Long total) {
+    PageResponseDto<T> response =
+        total == null ? withoutTotal(data) : new PageResponseDto<>(total, data);
+    response.nextCursor = nextCursor;
+    response.hasMore = nextCursor != null;
+    return response;
+  }
+
   /** 返回一个空分页结果。 */
   public static <T> PageResponseDto<T> empty() {
     return new PageResponseDto<>(0, null);
@@ -0,0 +1,29 @@
+package org.jdk.project.dto.export;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/** 异步导出任务状态。 */
+@Data
+public class ExportJobDto {
+
+  private String id;
+
+  /** 导出类型，如 production-daily、repair-records。 */
+  private String type;
+
+  /** QUEUED=排队中，RUNNING=生成中，DONE=可下载，FAILED=失败。 */
+  private String status;
+
+  private String fileName;
+
+  /** 文件大小（字节），生成完成后有值。 */
+  private Long size;
+
+  /** 失败原因。 */
+  private String error;
+
+  private LocalDateTime createdAt;
+
+  private LocalDateTime finishedAt;
+}
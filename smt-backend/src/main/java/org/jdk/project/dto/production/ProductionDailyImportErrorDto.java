@@ -0,0 +1,17 @@
+package org.jdk.project.dto.production;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** 导入失败行。 */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductionDailyImportErrorDto {
+
+  /** Excel 行号（从 1 开始，含表头行）。 */
+  private Integer rowNumber;
+
+  private String message;
+}
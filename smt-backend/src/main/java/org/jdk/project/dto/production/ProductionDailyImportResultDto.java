@@ -0,0 +1,22 @@
+package org.jdk.project.dto.production;
+
+import java.util.List;
+import lombok.Data;
+
+/** 每日产能导入结果。 */
+@Data
+public class ProductionDailyImportResultDto {
+
+  /** 读取的数据行数（不含表头、空行与合计行）。 */
+  private Integer totalRows;
+
+  private Integer importedRows;
+
+  private Integer failedRows;
+
+  /** 失败行明细，最多返回前若干条。 */
+  private List<ProductionDailyImportErrorDto> errors;
+
+  /** 失败行超过返回上限时为 true。 */
+  private Boolean errorsTruncated;
+}
@@ -0,0 +1,69 @@
+package org.jdk.project.dto.production;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.annotation.format.DateTimeFormat;
+import java.math.BigDecimal;
+import lombok.Data;
+
+/**
+ * 每日产能导入行。
+ *
+ * <p>按表头名称匹配列，表头与导出文件一致（GAP、达成率等计算列忽略），导出文件可直接修改后导入。
+ */
+@Data
+public class ProductionDailyImportRow {
+
+  /** 日期，日期单元格按 yyyy-MM-dd 读取，文本单元格原样读取。 */
+  @ExcelProperty("日期")
+  @DateTimeFormat("yyyy-MM-dd")
+  private String prodDate;
+
+  @ExcelProperty("厂区")
+  private String factoryName;
+
+  @ExcelProperty("车间")
+  private String workshopName;
+
+  @ExcelProperty("线别")
+  private String lineName;
+
+  /** 班别：白/白班/DAY 或 夜/夜班/NIGHT。 */
+  @ExcelProperty("班别")
+  private String shift;
+
+  @ExcelProperty("制程段")
+  private String processName;
+
+  @ExcelProperty("机台号")
+  private String machineNo;
+
+  @ExcelProperty("生产料号")
+  private String productCode;
+
+  @ExcelProperty("系列")
+  private String seriesName;
+
+  @ExcelProperty("CT")
+  private BigDecimal ct;
+
+  @ExcelProperty("目前投入设备量")
+  private Integer equipmentCount;
+
+  @ExcelProperty("投产时间(min)")
+  private Integer runMinutes;
+
+  @ExcelProperty("目标产能(K)")
+  private Integer targetOutput;
+
+  @ExcelProperty("实际产出")
+  private Integer actualOutput;
+
+  @ExcelProperty("理论Down机时间(min)")
+  private Integer downMinutes;
+
+  @ExcelProperty("FA")
+  private String fa;
+
+  @ExcelProperty("CA")
+  private String ca;
+}
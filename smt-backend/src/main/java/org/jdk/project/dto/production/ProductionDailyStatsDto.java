@@ -0,0 +1,40 @@
+package org.jdk.project.dto.production;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Data;
+
+/**
+ * 每日产能汇总行。
+ *
+ * <p>维度字段为空表示该层级已汇总（小计/总计），level 为参与分组的层级数，0 表示总计。
+ */
+@Data
+public class ProductionDailyStatsDto {
+
+  /** 周期起始日（日/周一/月初），总计行为空。 */
+  private LocalDate periodStart;
+
+  private String factoryName;
+
+  private String workshopName;
+
+  private String lineName;
+
+  private String processName;
+
+  private String seriesName;
+
+  private Integer level;
+
+  private Long targetOutput;
+
+  private Long actualOutput;
+
+  private Long gap;
+
+  /** 加权达成率% = 实际产出合计 / 目标产能合计。 */
+  private BigDecimal achievementRate;
+
+  private Long downMinutes;
+}
@@ -0,0 +1,16 @@
+package org.jdk.project.dto.repair;
+
+import lombok.Data;
+
+/** 未修复记录账龄区间。 */
+@Data
+public class RepairAgingBucketDto {
+
+  /** 区间说明，如 4-24h。 */
+  private String label;
+
+  private Long recordCount;
+
+  /** 区间内最长账龄（分钟）。 */
+  private Long maxAgeMinutes;
+}
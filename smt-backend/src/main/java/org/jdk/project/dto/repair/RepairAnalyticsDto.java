@@ -0,0 +1,30 @@
+package org.jdk.project.dto.repair;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.Data;
+
+/** 维修记录分析结果。 */
+@Data
+public class RepairAnalyticsDto {
+
+  private Long totalCount;
+
+  private Long openCount;
+
+  private Long fixedCount;
+
+  /** 平均修复时间（分钟，仅统计已修复记录）。 */
+  private BigDecimal mttrMinutes;
+
+  private Long downMinutes;
+
+  /** 故障次数最多的机台。 */
+  private List<RepairMachineStatsDto> topMachines;
+
+  /** 按异常分类的 Down 机时间帕累托。 */
+  private List<RepairParetoItemDto> downtimePareto;
+
+  /** 未修复记录的账龄分布。 */
+  private List<RepairAgingBucketDto> openAging;
+}
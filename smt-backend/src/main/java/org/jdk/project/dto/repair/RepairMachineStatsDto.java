@@ -0,0 +1,27 @@
+package org.jdk.project.dto.repair;
+
+import java.math.BigDecimal;
+import lombok.Data;
+
+/** 机台故障统计。 */
+@Data
+public class RepairMachineStatsDto {
+
+  private String factoryName;
+
+  private String workshopName;
+
+  private String lineName;
+
+  private String machineNo;
+
+  private Long failureCount;
+
+  /** 平均修复时间（分钟）。 */
+  private BigDecimal mttrMinutes;
+
+  /** 平均故障间隔（分钟，相邻两次故障发生时间之差的平均值，仅一次故障时为空）。 */
+  private BigDecimal mtbfMinutes;
+
+  private Long downMinutes;
+}
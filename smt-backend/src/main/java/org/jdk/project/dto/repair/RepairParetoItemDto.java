@@ -0,0 +1,21 @@
+package org.jdk.project.dto.repair;
+
+import java.math.BigDecimal;
+import lombok.Data;
+
+/** 帕累托分析项。 */
+@Data
+public class RepairParetoItemDto {
+
+  private String abnormalTypeName;
+
+  private Long recordCount;
+
+  private Long downMinutes;
+
+  /** 占比%。 */
+  private BigDecimal share;
+
+  /** 累计占比%。 */
+  private BigDecimal cumulativeShare;
+}
@@ -2,15 +2,24 @@ package org.jdk.project.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import org.jdk.project.dto.production.ProductionDailyProcessViewDto;
+import org.jdk.project.dto.production.ProductionDailyStatsDto;
 import org.jooq.Condition;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.Record;
 import org.jooq.SelectJoinStep;
 import org.jooq.generated.tables.ProductionDailyHeader;
 import org.jooq.generated.tables.ProductionDailyProcess;
+import org.jooq.generated.tables.ProductionDailyRollup;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 
 /** 每日产能数据访问。 */
@@ -22,79 +31,234 @@ public class ProductionDailyRepository {
       ProductionDailyHeader.PRODUCTION_DAILY_HEADER;
   private static final ProductionDailyProcess PRODUCTION_DAILY_PROCESS =
       ProductionDailyProcess.PRODUCTION_DAILY_PROCESS;
+  private static final ProductionDailyRollup PRODUCTION_DAILY_ROLLUP =
+      ProductionDailyRollup.PRODUCTION_DAILY_ROLLUP;
+
+  private static final int UPSERT_CHUNK_SIZE = 100;
+
+  private static final String HEADER_TABLE = "smtBackend.production_daily_header";
+  private static final String PROCESS_TABLE = "smtBackend.production_daily_process";
+  private static final String ROLLUP_TABLE = "smtBackend.production_daily_rollup";
+
+  // 汇总周期 -> 周期起始日表达式，{0} 为日期列（周以周一为起始，与 @@DATEFIRST 设置无关）
+  private static final Map<String, String> STATS_PERIOD_EXPRESSIONS =
+      Map.of(
+          "DAY", "{0}",
+          "WEEK", "dateadd(day, -((datepart(weekday, {0}) + @@datefirst + 5) % 7), {0})",
+          "MONTH", "datefromparts(year({0}), month({0}), 1)");
+
+  // 汇总维度 -> {明细所在表, 列, 结果字段}
+  private static final Map<String, String[]> STATS_DIMENSION_COLUMNS =
+      Map.of(
+          "factory", new String[] {HEADER_TABLE, "factory_name", "factoryName"},
+          "workshop", new String[] {HEADER_TABLE, "workshop_name", "workshopName"},
+          "line", new String[] {HEADER_TABLE, "line_name", "lineName"},
+          "process", new String[] {PROCESS_TABLE, "process_name", "processName"},
+          "series", new String[] {PROCESS_TABLE, "series_name", "seriesName"});
+
+  private static final String INSERT_HEADER_SQL =
+      "insert into smtBackend.production_daily_header "
+          + "([prod_date], [shift], [factory_name], [workshop_name], [line_name]) "
+          + "output inserted.id values (?, ?, ?, ?, ?)";
 
   private final DSLContext dsl;
+  private final SqlRenderCache sqlRenderCache;
 
   public Long findHeaderId(
       LocalDate prodDate, String shift, String factoryName, String workshopName, String lineName) {
-    return dsl.select(PRODUCTION_DAILY_HEADER.ID)
-        .from(PRODUCTION_DAILY_HEADER)
-        .where(PRODUCTION_DAILY_HEADER.PROD_DATE.eq(prodDate))
-        .and(PRODUCTION_DAILY_HEADER.SHIFT.eq(shift))
-        .and(PRODUCTION_DAILY_HEADER.FACTORY_NAME.eq(factoryName))
-        .and(PRODUCTION_DAILY_HEADER.WORKSHOP_NAME.eq(workshopName))
-        .and(PRODUCTION_DAILY_HEADER.LINE_NAME.eq(lineName))
-        .fetchOne(PRODUCTION_DAILY_HEADER.ID);
+    String sql =
+        sqlRenderCache.get(
+            "productionDaily.findHeaderId",
+            () ->
+                dsl.select(PRODUCTION_DAILY_HEADER.ID)
+                    .from(PRODUCTION_DAILY_HEADER)
+                    .where(
+                        PRODUCTION_DAILY_HEADER.PROD_DATE.eq(
+                            DSL.param("prodDate", LocalDate.class)))
+                    .and(PRODUCTION_DAILY_HEADER.SHIFT.eq(DSL.param("shift", String.class)))
+                    .and(
+                        PRODUCTION_DAILY_HEADER.FACTORY_NAME.eq(
+                            DSL.param("factoryName", String.class)))
+                    .and(
+                        PRODUCTION_DAILY_HEADER.WORKSHOP_NAME.eq(
+                            DSL.param("workshopName", String.class)))
+                    .and(PRODUCTION_DAILY_HEADER.LINE_NAME.eq(DSL.param("lineName", String.class)))
+                    .getSQL());
+    return dsl.resultQuery(sql, prodDate, shift, factoryName, workshopName, lineName)
+        .fetchOne(0, Long.class);
   }
 
   public Long insertHeader(
       LocalDate prodDate, String shift, String factoryName, String workshopName, String lineName) {
-    String sql =
-        "insert into smtBackend.production_daily_header "
-            + "([prod_date], [shift], [factory_name], [workshop_name], [line_name]) "
-            + "output inserted.id values (?, ?, ?, ?, ?)";
-    return dsl.resultQuery(sql, prodDate, shift, factoryName, workshopName, lineName)
+    return dsl.resultQuery(
+            INSERT_HEADER_SQL, prodDate, shift, factoryName, workshopName, lineName)
         .fetchOne(0, Long.class);
   }
 
   public List<ProductionDailyProcessViewDto> fetchProcessesByHeaderId(Long headerId) {
-    return baseSelect()
-        .where(PRODUCTION_DAILY_PROCESS.HEADER_ID.eq(headerId))
-        .orderBy(PRODUCTION_DAILY_PROCESS.ID.asc())
-        .fetchInto(ProductionDailyProcessViewDto.class);
+    String sql =
+        sqlRenderCache.get(
+            "productionDaily.processesByHeaderId",
+            () ->
+                baseSelect()
+                    .where(
+                        PRODUCTION_DAILY_PROCESS.HEADER_ID.eq(DSL.param("headerId", Long.class)))
+                    .orderBy(PRODUCTION_DAILY_PROCESS.ID.asc())
+                    .getSQL());
+    return dsl.resultQuery(sql, headerId).fetchInto(ProductionDailyProcessViewDto.class);
   }
 
-  public List<ProductionDailyProcessViewDto> fetchProcessesForExport(
+  /**
+   * 以游标方式逐行读取导出数据，避免一次性加载整个日期范围。
+   *
+   * @param fetchSize JDBC 每次抓取行数
+   * @param consumer 行处理回调（按导出顺序调用）
+   */
+  public void streamProcessesForExport(
       LocalDate from,
       LocalDate to,
       String shift,
       String factoryName,
       String workshopName,
-      String lineName) {
-    Condition condition =
-        PRODUCTION_DAILY_HEADER.PROD_DATE.ge(from).and(PRODUCTION_DAILY_HEADER.PROD_DATE.le(to));
-    if (shift != null) {
-      condition = condition.and(PRODUCTION_DAILY_HEADER.SHIFT.eq(shift));
-    }
-    if (factoryName != null) {
-      condition = condition.and(PRODUCTION_DAILY_HEADER.FACTORY_NAME.eq(factoryName));
-    }
-    if (workshopName != null) {
-      condition = condition.and(PRODUCTION_DAILY_HEADER.WORKSHOP_NAME.eq(workshopName));
+      String lineName,
+      int fetchSize,
+      Consumer<ProductionDailyProcessViewDto> consumer) {
+    String sql =
+        sqlRenderCache.get(
+            "productionDaily.export|"
+                + filterShape(from, to, shift, factoryName, workshopName, lineName),
+            () ->
+                baseSelect()
+                    .where(filterCondition(from, to, shift, factoryName, workshopName, lineName))
+                    .orderBy(
+                        PRODUCTION_DAILY_HEADER.PROD_DATE.asc(),
+                        PRODUCTION_DAILY_HEADER.FACTORY_NAME.asc(),
+                        PRODUCTION_DAILY_HEADER.WORKSHOP_NAME.asc(),
+                        PRODUCTION_DAILY_HEADER.LINE_NAME.asc(),
+                        PRODUCTION_DAILY_HEADER.SHIFT.asc(),
+                        PRODUCTION_DAILY_PROCESS.PROCESS_NAME.asc(),
+                        PRODUCTION_DAILY_PROCESS.MACHINE_NO.asc())
+                    .getSQL());
+    List<Object> params = filterBinds(from, to, shift, factoryName, workshopName, lineName);
+    try (Cursor<Record> cursor =
+        dsl.resultQuery(sql, params.toArray()).fetchSize(fetchSize).fetchLazy()) {
+      for (Record record : cursor) {
+        consumer.accept(record.into(ProductionDailyProcessViewDto.class));
+      }
     }
-    if (lineName != null) {
-      condition = condition.and(PRODUCTION_DAILY_HEADER.LINE_NAME.eq(lineName));
+  }
+
+  public long countProcesses(
+      LocalDate from,
+      LocalDate to,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName) {
+    String sql =
+        sqlRenderCache.get(
+            "productionDaily.count|"
+                + filterShape(from, to, shift, factoryName, workshopName, lineName),
+            () ->
+                dsl.selectCount()
+                    .from(PRODUCTION_DAILY_PROCESS)
+                    .join(PRODUCTION_DAILY_HEADER)
+                    .on(PRODUCTION_DAILY_PROCESS.HEADER_ID.eq(PRODUCTION_DAILY_HEADER.ID))
+                    .where(filterCondition(from, to, shift, factoryName, workshopName, lineName))
+                    .getSQL());
+    List<Object> params = filterBinds(from, to, shift, factoryName, workshopName, lineName);
+    return dsl.resultQuery(sql, params.toArray()).fetchOne(0, long.class);
+  }
+
+  /**
+   * 按 (prod_date, shift, id) 游标分页查询明细。
+   *
+   * <p>prod_date 方向可选，shift 与 id 固定升序作为次级排序；after* 为上一页最后一行的排序键，首页传 null。
+   */
+  public List<ProductionDailyProcessViewDto> fetchProcessPage(
+      LocalDate from,
+      LocalDate to,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName,
+      boolean prodDateAscending,
+      LocalDate afterProdDate,
+      String afterShift,
+      Long afterId,
+      int limit) {
+    boolean hasAfter = afterProdDate != null && afterShift != null && afterId != null;
+    String sql =
+        sqlRenderCache.get(
+            "productionDaily.page|"
+                + filterShape(from, to, shift, factoryName, workshopName, lineName)
+                + "|"
+                + prodDateAscending
+                + "|"
+                + hasAfter,
+            () ->
+                renderProcessPage(
+                    from,
+                    to,
+                    shift,
+                    factoryName,
+                    workshopName,
+                    lineName,
+                    prodDateAscending,
+                    afterProdDate,
+                    afterShift,
+                    afterId));
+    List<Object> params = filterBinds(from, to, shift, factoryName, workshopName, lineName);
+    if (hasAfter) {
+      // 顺序与 renderProcessPage 中 keyset 谓词一致
+      params.addAll(List.of(afterProdDate, afterProdDate, afterShift, afterShift, afterId));
     }
-    return baseSelect()
-        .where(condition)
-        .orderBy(
-            PRODUCTION_DAILY_HEADER.PROD_DATE.asc(),
-            PRODUCTION_DAILY_HEADER.FACTORY_NAME.asc(),
-            PRODUCTION_DAILY_HEADER.WORKSHOP_NAME.asc(),
-            PRODUCTION_DAILY_HEADER.LINE_NAME.asc(),
-            PRODUCTION_DAILY_HEADER.SHIFT.asc(),
-            PRODUCTION_DAILY_PROCESS.PROCESS_NAME.asc(),
-            PRODUCTION_DAILY_PROCESS.MACHINE_NO.asc())
-        .fetchInto(ProductionDailyProcessViewDto.class);
+    params.add(limit);
+    return dsl.resultQuery(sql, params.toArray()).fetchInto(ProductionDailyProcessViewDto.class);
   }
 
-  public List<ProductionDailyProcessViewDto> fetchAllProcesses() {
-    return baseSelect()
-        .orderBy(
-            PRODUCTION_DAILY_HEADER.PROD_DATE.desc(),
-            PRODUCTION_DAILY_HEADER.SHIFT.asc(),
-            PRODUCTION_DAILY_PROCESS.ID.asc())
-        .fetchInto(ProductionDailyProcessViewDto.class);
+  private String renderProcessPage(
+      LocalDate from,
+      LocalDate to,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName,
+      boolean prodDateAscending,
+      LocalDate afterProdDate,
+      String afterShift,
+      Long afterId) {
+    Condition condition = filterCondition(from, to, shift, factoryName, workshopName, lineName);
+    if (afterProdDate != null && afterShift != null && afterId != null) {
+      // 开源版 jOOQ 无 SQL Server 方言，手工展开 keyset 谓词
+      Condition shiftIdAfter =
+          PRODUCTION_DAILY_HEADER
+              .SHIFT
+              .gt(afterShift)
+              .or(
+                  PRODUCTION_DAILY_HEADER
+                      .SHIFT
+                      .eq(afterShift)
+                      .and(PRODUCTION_DAILY_PROCESS.ID.gt(afterId)));
+      Condition prodDateAfter =
+          prodDateAscending
+              ? PRODUCTION_DAILY_HEADER.PROD_DATE.gt(afterProdDate)
+              : PRODUCTION_DAILY_HEADER.PROD_DATE.lt(afterProdDate);
+      condition =
+          condition.and(
+              prodDateAfter.or(
+                  PRODUCTION_DAILY_HEADER.PROD_DATE.eq(afterProdDate).and(shiftIdAfter)));
+    }
+    var ordered =
+        baseSelect()
+            .where(condition)
+            .orderBy(
+                prodDateAscending
+                    ? PRODUCTION_DAILY_HEADER.PROD_DATE.asc()
+                    : PRODUCTION_DAILY_HEADER.PROD_DATE.desc(),
+                PRODUCTION_DAILY_HEADER.SHIFT.asc(),
+                PRODUCTION_DAILY_PROCESS.ID.asc());
+    return ordered.getSQL() + " offset 0 rows fetch next ? rows only";
   }
 
   public List<ProductionDailyProcessViewDto> fetchProcessesByIds(List<Long> ids) {
@@ -114,84 +278,316 @@ public class ProductionDailyRepository {
         .fetchInto(ProductionDailyProcessViewDto.class);
   }
 
-  public Long insertProcess(
-      Long headerId,
-      String machineNo,
-      String processName,
-      String productCode,
-      String seriesName,
-      BigDecimal ct,
-      Integer equipmentCount,
-      Integer runMinutes,
-      Integer targetOutput,
-      Integer actualOutput,
-      Integer gap,
-      BigDecimal achievementRate,
-      Integer downMinutes,
-      String fa,
-      String ca) {
-    String sql =
-        "insert into smtBackend.production_daily_process "
-            + "([header_id], [machine_no], "
-            + "[process_name], [product_code], [series_name], [ct], "
-            + "[equipment_count], [run_minutes], [target_output], [actual_output], "
-            + "[gap], [achievement_rate], [down_minutes], [fa], [ca]) "
-            + "output inserted.id values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-    return dsl.resultQuery(
-            sql,
-            headerId,
-            machineNo,
-            processName,
-            productCode,
-            seriesName,
-            ct,
-            equipmentCount,
-            runMinutes,
-            targetOutput,
-            actualOutput,
-            gap,
-            achievementRate,
-            downMinutes,
-            fa,
-            ca)
-        .fetchOne(0, Long.class);
+  /**
+   * 批量写入制程段明细：每批一条 MERGE 语句。
+   *
+   * <p>先写携带 id 的行（按 id 更新），再写未携带 id 的行（按（表头, 制程段, 机台号）唯一键匹配，命中则更新，否则插入）。
+   * 分两遍执行，避免同一次提交中"改名的旧行"与"占用其原唯一键的新行"匹配到同一目标行（MERGE 不允许一行被多次更新）。
+   *
+   * @param headerId 表头ID
+   * @param processes 已校验的明细行（id 不重复，同一唯一键不重复）
+   * @return 与入参顺序一致的写入结果（含更新前的值，用于增量维护汇总表）；携带 id 但未匹配到记录的位置为 null
+   */
+  public List<UpsertedProcess> upsertProcesses(
+      Long headerId, List<ProductionDailyProcessViewDto> processes) {
+    List<UpsertedProcess> results =
+        new ArrayList<>(Collections.nCopies(processes.size(), (UpsertedProcess) null));
+    List<Integer> withId = new ArrayList<>();
+    List<Integer> withoutId = new ArrayList<>();
+    for (int i = 0; i < processes.size(); i++) {
+      (processes.get(i).getId() != null ? withId : withoutId).add(i);
+    }
+    mergeProcesses(headerId, processes, withId, true, results);
+    mergeProcesses(headerId, processes, withoutId, false, results);
+    return results;
   }
 
-  public int updateProcess(
-      Long id,
+  /**
+   * 分批 MERGE 指定下标的明细行，结果按下标写回 results。
+   *
+   * @param rowIndexes 参与本遍写入的行下标
+   * @param byId true 时按 id 匹配且只更新；false 时按唯一键匹配，未命中则插入
+   */
+  private void mergeProcesses(
       Long headerId,
-      String machineNo,
-      String processName,
-      String productCode,
-      String seriesName,
-      BigDecimal ct,
-      Integer equipmentCount,
-      Integer runMinutes,
-      Integer targetOutput,
-      Integer actualOutput,
-      Integer gap,
-      BigDecimal achievementRate,
-      Integer downMinutes,
-      String fa,
-      String ca) {
-    return dsl.update(PRODUCTION_DAILY_PROCESS)
-        .set(PRODUCTION_DAILY_PROCESS.MACHINE_NO, machineNo)
-        .set(PRODUCTION_DAILY_PROCESS.PROCESS_NAME, processName)
-        .set(PRODUCTION_DAILY_PROCESS.PRODUCT_CODE, productCode)
-        .set(PRODUCTION_DAILY_PROCESS.SERIES_NAME, seriesName)
-        .set(PRODUCTION_DAILY_PROCESS.CT, ct)
-        .set(PRODUCTION_DAILY_PROCESS.EQUIPMENT_COUNT, equipmentCount)
-        .set(PRODUCTION_DAILY_PROCESS.RUN_MINUTES, runMinutes)
-        .set(PRODUCTION_DAILY_PROCESS.TARGET_OUTPUT, targetOutput)
-        .set(PRODUCTION_DAILY_PROCESS.ACTUAL_OUTPUT, actualOutput)
-        .set(PRODUCTION_DAILY_PROCESS.GAP, gap)
-        .set(PRODUCTION_DAILY_PROCESS.ACHIEVEMENT_RATE, achievementRate)
-        .set(PRODUCTION_DAILY_PROCESS.DOWN_MINUTES, downMinutes)
-        .set(PRODUCTION_DAILY_PROCESS.FA, fa)
-        .set(PRODUCTION_DAILY_PROCESS.CA, ca)
-        .where(PRODUCTION_DAILY_PROCESS.ID.eq(id))
-        .and(PRODUCTION_DAILY_PROCESS.HEADER_ID.eq(headerId))
-        .execute();
+      List<ProductionDailyProcessViewDto> processes,
+      List<Integer> rowIndexes,
+      boolean byId,
+      List<UpsertedProcess> results) {
+    String matchCondition =
+        byId
+            ? "target.[id] = source.[id]"
+            : "target.[process_name] = source.[process_name]"
+                + " and target.[machine_no] = source.[machine_no]";
+    String insertClause =
+        byId
+            ? ""
+            : "when not matched by target then insert ([header_id],"
+                + " [machine_no], [process_name], [product_code], [series_name], [ct],"
+                + " [equipment_count], [run_minutes], [target_output], [actual_output], [gap],"
+                + " [achievement_rate], [down_minutes], [fa], [ca]) values (?, source.[machine_no],"
+                + " source.[process_name], source.[product_code], source.[series_name],"
+                + " source.[ct], source.[equipment_count], source.[run_minutes],"
+                + " source.[target_output], source.[actual_output], source.[gap],"
+                + " source.[achievement_rate], source.[down_minutes], source.[fa], source.[ca]) ";
+    // 每行 16 个参数，按批拆分以避开 SQL Server 2100 个参数上限
+    for (int start = 0; start < rowIndexes.size(); start += UPSERT_CHUNK_SIZE) {
+      int end = Math.min(start + UPSERT_CHUNK_SIZE, rowIndexes.size());
+      StringBuilder values = new StringBuilder();
+      List<Object> params = new ArrayList<>();
+      for (int k = start; k < end; k++) {
+        int i = rowIndexes.get(k);
+        ProductionDailyProcessViewDto process = processes.get(i);
+        if (k > start) {
+          values.append(", ");
+        }
+        values.append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        params.add(DSL.val(i, Integer.class));
+        params.add(DSL.val(process.getId(), Long.class));
+        params.add(DSL.val(process.getMachineNo(), String.class));
+        params.add(DSL.val(process.getProcessName(), String.class));
+        params.add(DSL.val(process.getProductCode(), String.class));
+        params.add(DSL.val(process.getSeriesName(), String.class));
+        params.add(DSL.val(process.getCt(), BigDecimal.class));
+        params.add(DSL.val(process.getEquipmentCount(), Integer.class));
+        params.add(DSL.val(process.getRunMinutes(), Integer.class));
+        params.add(DSL.val(process.getTargetOutput(), Integer.class));
+        params.add(DSL.val(process.getActualOutput(), Integer.class));
+        params.add(DSL.val(process.getGap(), Integer.class));
+        params.add(DSL.val(process.getAchievementRate(), BigDecimal.class));
+        params.add(DSL.val(process.getDownMinutes(), Integer.class));
+        params.add(DSL.val(process.getFa(), String.class));
+        params.add(DSL.val(process.getCa(), String.class));
+      }
+      params.add(DSL.val(headerId, Long.class));
+      if (!byId) {
+        params.add(DSL.val(headerId, Long.class));
+      }
+      String sql =
+          "merge smtBackend.production_daily_process with (holdlock) as target "
+              + "using (values "
+              + values
+              + ") as source ([row_no], [id], [machine_no], [process_name], [product_code],"
+              + " [series_name], [ct], [equipment_count], [run_minutes], [target_output],"
+              + " [actual_output], [gap], [achievement_rate], [down_minutes], [fa], [ca]) "
+              + "on target.[header_id] = ? and "
+              + matchCondition
+              + " when matched then update set [machine_no] = source.[machine_no],"
+              + " [process_name] = source.[process_name], [product_code] = source.[product_code],"
+              + " [series_name] = source.[series_name], [ct] = source.[ct],"
+              + " [equipment_count] = source.[equipment_count],"
+              + " [run_minutes] = source.[run_minutes],"
+              + " [target_output] = source.[target_output],"
+              + " [actual_output] = source.[actual_output],"
+              + " [gap] = source.[gap], [achievement_rate] = source.[achievement_rate],"
+              + " [down_minutes] = source.[down_minutes], [fa] = source.[fa], [ca] = source.[ca] "
+              + insertClause
+              + "output source.[row_no], inserted.[id], deleted.[process_name],"
+              + " deleted.[target_output], deleted.[actual_output], deleted.[down_minutes];";
+      for (Record record : dsl.resultQuery(sql, params.toArray()).fetch()) {
+        results.set(
+            record.get(0, Integer.class),
+            new UpsertedProcess(
+                record.get(1, Long.class),
+                record.get(2, String.class),
+                record.get(3, Integer.class),
+                record.get(4, Integer.class),
+                record.get(5, Integer.class)));
+      }
+    }
+  }
+
+  /**
+   * 将增量累加到每日产能汇总表：不存在则插入，明细行数归零则删除。
+   *
+   * @param deltas 按制程段的增量
+   */
+  public void applyRollupDeltas(
+      LocalDate prodDate,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName,
+      List<RollupDelta> deltas) {
+    for (int start = 0; start < deltas.size(); start += UPSERT_CHUNK_SIZE) {
+      int end = Math.min(start + UPSERT_CHUNK_SIZE, deltas.size());
+      StringBuilder values = new StringBuilder();
+      List<Object> params = new ArrayList<>();
+      for (int i = start; i < end; i++) {
+        RollupDelta delta = deltas.get(i);
+        if (i > start) {
+          values.append(", ");
+        }
+        values.append("(?, ?, ?, ?, ?)");
+        params.add(DSL.val(delta.processName(), String.class));
+        params.add(DSL.val(delta.targetOutput(), Long.class));
+        params.add(DSL.val(delta.actualOutput(), Long.class));
+        params.add(DSL.val(delta.downMinutes(), Long.class));
+        params.add(DSL.val(delta.rowCount(), Integer.class));
+      }
+      // ON 与 INSERT 各引用一次分组键
+      for (int i = 0; i < 2; i++) {
+        params.add(DSL.val(prodDate, LocalDate.class));
+        params.add(DSL.val(shift, String.class));
+        params.add(DSL.val(factoryName, String.class));
+        params.add(DSL.val(workshopName, String.class));
+        params.add(DSL.val(lineName, String.class));
+      }
+      String sql =
+          "merge smtBackend.production_daily_rollup with (holdlock) as target "
+              + "using (values "
+              + values
+              + ") as source ([process_name], [target_output], [actual_output], [down_minutes],"
+              + " [row_count]) "
+              + "on target.[prod_date] = ? and target.[shift] = ? and target.[factory_name] = ?"
+              + " and target.[workshop_name] = ? and target.[line_name] = ?"
+              + " and target.[process_name] = source.[process_name] "
+              + "when matched and target.[row_count] + source.[row_count] <= 0 then delete "
+              + "when matched then update set"
+              + " [target_output] = target.[target_output] + source.[target_output],"
+              + " [actual_output] = target.[actual_output] + source.[actual_output],"
+              + " [down_minutes] = target.[down_minutes] + source.[down_minutes],"
+              + " [row_count] = target.[row_count] + source.[row_count] "
+              + "when not matched by target and source.[row_count] > 0 then insert ([prod_date],"
+              + " [shift], [factory_name], [workshop_name], [line_name], [process_name],"
+              + " [target_output], [actual_output], [down_minutes], [row_count])"
+              + " values (?, ?, ?, ?, ?, source.[process_name], source.[target_output],"
+              + " source.[actual_output], source.[down_minutes], source.[row_count]);";
+      dsl.execute(sql, params.toArray());
+    }
+  }
+
+  /**
+   * 由明细全量重建每日产能汇总表。
+   *
+   * <p>先以排他表锁清空汇总表，重建期间的增量写入会等待本事务提交，避免重复累加。
+   *
+   * @return 重建后的汇总行数
+   */
+  public int rebuildRollup() {
+    dsl.execute("delete from smtBackend.production_daily_rollup with (tablockx)");
+    return dsl.execute(
+        "insert into smtBackend.production_daily_rollup ([prod_date], [shift], [factory_name],"
+            + " [workshop_name], [line_name], [process_name], [target_output], [actual_output],"
+            + " [down_minutes], [row_count]) "
+            + "select h.[prod_date], h.[shift], h.[factory_name], h.[workshop_name],"
+            + " h.[line_name], p.[process_name], sum(cast(p.[target_output] as bigint)),"
+            + " sum(cast(p.[actual_output] as bigint)), sum(cast(p.[down_minutes] as bigint)),"
+            + " count(*) "
+            + "from smtBackend.production_daily_process p"
+            + " join smtBackend.production_daily_header h on h.[id] = p.[header_id] "
+            + "group by h.[prod_date], h.[shift], h.[factory_name], h.[workshop_name],"
+            + " h.[line_name], p.[process_name]");
+  }
+
+  /**
+   * 按周期与维度层级汇总产能，GROUP BY ROLLUP 在库内生成小计与总计行。
+   *
+   * <p>不按系列汇总时读取预聚合的 production_daily_rollup，否则回退到明细表。
+   *
+   * @param period 周期：DAY / WEEK / MONTH
+   * @param dimensions 维度（按层级顺序）：factory / workshop / line / process / series
+   */
+  public List<ProductionDailyStatsDto> fetchStats(
+      LocalDate from,
+      LocalDate to,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName,
+      String period,
+      List<String> dimensions) {
+    String periodTemplate = STATS_PERIOD_EXPRESSIONS.get(period);
+    if (periodTemplate == null) {
+      throw new IllegalArgumentException("Unsupported stats period: " + period);
+    }
+    boolean fromRollup = !dimensions.contains("series");
+    String periodExpression =
+        periodTemplate.replace("{0}", (fromRollup ? ROLLUP_TABLE : HEADER_TABLE) + ".[prod_date]");
+    List<String> groupColumns = new ArrayList<>();
+    groupColumns.add(periodExpression);
+    StringBuilder select =
+        new StringBuilder("select ").append(periodExpression).append(" as [periodStart]");
+    for (String dimension : dimensions) {
+      String[] column = STATS_DIMENSION_COLUMNS.get(dimension);
+      if (column == null) {
+        throw new IllegalArgumentException("Unsupported stats dimension: " + dimension);
+      }
+      String expression = (fromRollup ? ROLLUP_TABLE : column[0]) + ".[" + column[1] + "]";
+      groupColumns.add(expression);
+      select.append(", ").append(expression).append(" as [").append(column[2]).append("]");
+    }
+    StringBuilder level = new StringBuilder().append(groupColumns.size());
+    StringBuilder orderBy = new StringBuilder();
+    for (String column : groupColumns) {
+      level.append(" - grouping(").append(column).append(")");
+      if (orderBy.length() > 0) {
+        orderBy.append(", ");
+      }
+      // 明细在前、小计在后
+      orderBy.append("grouping(").append(column).append("), ").append(column);
+    }
+    String target = statsSum(fromRollup, "target_output");
+    String actual = statsSum(fromRollup, "actual_output");
+    String source;
+    Condition condition;
+    if (fromRollup) {
+      source = ROLLUP_TABLE;
+      condition =
+          filterCondition(
+              PRODUCTION_DAILY_ROLLUP.PROD_DATE,
+              PRODUCTION_DAILY_ROLLUP.SHIFT,
+              PRODUCTION_DAILY_ROLLUP.FACTORY_NAME,
+              PRODUCTION_DAILY_ROLLUP.WORKSHOP_NAME,
+              PRODUCTION_DAILY_ROLLUP.LINE_NAME,
+              from,
+              to,
+              shift,
+              factoryName,
+              workshopName,
+              lineName);
+    } else {
+      source =
+          PROCESS_TABLE
+              + " join "
+              + HEADER_TABLE
+              + " on "
+              + PROCESS_TABLE
+              + ".[header_id] = "
+              + HEADER_TABLE
+              + ".[id]";
+      condition = filterCondition(from, to, shift, factoryName, workshopName, lineName);
+    }
+    String sql =
+        select
+            + ", "
+            + level
+            + " as [level], "
+            + target
+            + " as [targetOutput], "
+            + actual
+            + " as [actualOutput], "
+            + actual
+            + " - "
+            + target
+            + " as [gap], case when "
+            + target
+            + " = 0 then 0 else cast("
+            + actual
+            + " * 100.0 / "
+            + target
+            + " as decimal(10, 2)) end as [achievementRate], "
+            + statsSum(fromRollup, "down_minutes")
+            + " as [downMinutes] from "
+            + source
+            + " where "
+            + dsl.render(condition)
+            + " group by rollup("
+            + String.join(", ", groupColumns)
+            + ") order by "
+            + orderBy;
+    return dsl.resultQuery(sql, dsl.extractBindValues(condition).toArray())
+        .fetchInto(ProductionDailyStatsDto.class);
   }
 
   public int updateProcessCa(Long id, String ca) {
@@ -201,13 +597,98 @@ public class ProductionDailyRepository {
         .execute();
   }
 
-  public ProductionDailyProcessViewDto fetchProcessSnapshot(Long processId) {
-    if (processId == null) {
-      return null;
+  private Condition filterCondition(
+      LocalDate from,
+      LocalDate to,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName) {
+    return filterCondition(
+        PRODUCTION_DAILY_HEADER.PROD_DATE,
+        PRODUCTION_DAILY_HEADER.SHIFT,
+        PRODUCTION_DAILY_HEADER.FACTORY_NAME,
+        PRODUCTION_DAILY_HEADER.WORKSHOP_NAME,
+        PRODUCTION_DAILY_HEADER.LINE_NAME,
+        from,
+        to,
+        shift,
+        factoryName,
+        workshopName,
+        lineName);
+  }
+
+  /** filterCondition 的形状键：各筛选项是否启用，决定渲染出的 SQL 文本。 */
+  private String filterShape(
+      LocalDate from,
+      LocalDate to,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName) {
+    StringBuilder shape = new StringBuilder(6);
+    for (Object value : new Object[] {from, to, shift, factoryName, workshopName, lineName}) {
+      shape.append(value != null ? '1' : '0');
+    }
+    return shape.toString();
+  }
+
+  /** filterCondition 的绑定参数，顺序与其追加条件的顺序一致。 */
+  private List<Object> filterBinds(
+      LocalDate from,
+      LocalDate to,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName) {
+    List<Object> binds = new ArrayList<>();
+    for (Object value : new Object[] {from, to, shift, factoryName, workshopName, lineName}) {
+      if (value != null) {
+        binds.add(value);
+      }
     }
-    return baseSelect()
-        .where(PRODUCTION_DAILY_PROCESS.ID.eq(processId))
-        .fetchOneInto(ProductionDailyProcessViewDto.class);
+    return binds;
+  }
+
+  private Condition filterCondition(
+      Field<LocalDate> prodDateField,
+      Field<String> shiftField,
+      Field<String> factoryNameField,
+      Field<String> workshopNameField,
+      Field<String> lineNameField,
+      LocalDate from,
+      LocalDate to,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName) {
+    Condition condition = DSL.condition("1=1");
+    if (from != null) {
+      condition = condition.and(prodDateField.ge(from));
+    }
+    if (to != null) {
+      condition = condition.and(prodDateField.le(to));
+    }
+    if (shift != null) {
+      condition = condition.and(shiftField.eq(shift));
+    }
+    if (factoryName != null) {
+      condition = condition.and(factoryNameField.eq(factoryName));
+    }
+    if (workshopName != null) {
+      condition = condition.and(workshopNameField.eq(workshopName));
+    }
+    if (lineName != null) {
+      condition = condition.and(lineNameField.eq(lineName));
+    }
+    return condition;
+  }
+
+  private String statsSum(boolean fromRollup, String column) {
+    // 汇总表已是 bigint；明细为 int，先转换避免 sum 溢出
+    return fromRollup
+        ? "sum(" + ROLLUP_TABLE + ".[" + column + "])"
+        : "sum(cast(" + PROCESS_TABLE + ".[" + column + "] as bigint))";
   }
 
   private SelectJoinStep<? extends Record> baseSelect() {
@@ -237,4 +718,21 @@ public class ProductionDailyRepository {
         .join(PRODUCTION_DAILY_HEADER)
         .on(PRODUCTION_DAILY_PROCESS.HEADER_ID.eq(PRODUCTION_DAILY_HEADER.ID));
   }
+
+  /**
+   * 明细写入结果。
+   *
+   * @param id 明细ID
+   * @param previousProcessName 更新前的制程段，新插入的行为 null
+   */
+  public record UpsertedProcess(
+      Long id,
+      String previousProcessName,
+      Integer previousTargetOutput,
+      Integer previousActualOutput,
+      Integer previousDownMinutes) {}
+
+  /** 汇总表增量（按制程段）。 */
+  public record RollupDelta(
+      String processName, long targetOutput, long actualOutput, long downMinutes, int rowCount) {}
 }
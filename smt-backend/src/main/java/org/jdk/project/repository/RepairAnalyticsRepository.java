@@ -0,0 +1,147 @@
+package org.jdk.project.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.jdk.project.dto.repair.RepairAgingBucketDto;
+import org.jdk.project.dto.repair.RepairAnalyticsDto;
+import org.jdk.project.dto.repair.RepairMachineStatsDto;
+import org.jdk.project.dto.repair.RepairParetoItemDto;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 维修记录分析数据访问。
+ *
+ * <p>统计均在库内完成（窗口函数计算故障间隔与累计占比），只返回汇总行。条件由调用方基于 repair_record 构造。
+ */
+@Repository
+@RequiredArgsConstructor
+public class RepairAnalyticsRepository {
+
+  private static final String REPAIR_RECORD_TABLE = "smtBackend.repair_record";
+
+  // 账龄区间上限（分钟，不含），最后一个区间无上限
+  private static final int[] AGING_UPPER_MINUTES = {240, 1440, 4320};
+  private static final String[] AGING_LABELS = {"<4h", "4-24h", "1-3d", ">3d"};
+
+  private final DSLContext dsl;
+
+  /** 汇总：总数、未修复/已修复数、MTTR、Down 机时间合计。 */
+  public RepairAnalyticsDto fetchSummary(Condition condition) {
+    String sql =
+        "select count(*) as [totalCount],"
+            + " sum(case when [is_fixed] = 0 then 1 else 0 end) as [openCount],"
+            + " sum(case when [is_fixed] = 1 then 1 else 0 end) as [fixedCount],"
+            + " cast(avg(case when [is_fixed] = 1 then cast([repair_minutes] as decimal(18, 2))"
+            + " end) as decimal(18, 2)) as [mttrMinutes],"
+            + " sum(cast([down_minutes] as bigint)) as [downMinutes] "
+            + "from "
+            + REPAIR_RECORD_TABLE
+            + " where "
+            + dsl.render(condition);
+    return dsl.resultQuery(sql, dsl.extractBindValues(condition).toArray())
+        .fetchOneInto(RepairAnalyticsDto.class);
+  }
+
+  /**
+   * 按故障次数取前 limit 个机台，MTBF 为同一机台相邻两次故障发生时间之差（LAG）的平均值。
+   *
+   * @param limit 返回机台数
+   */
+  public List<RepairMachineStatsDto> fetchTopMachines(Condition condition, int limit) {
+    String sql =
+        "with failures as (select [factory_name], [workshop_name], [line_name], [machine_no],"
+            + " [is_fixed], [repair_minutes], [down_minutes],"
+            + " datediff(minute, lag([occur_at]) over (partition by [factory_name],"
+            + " [workshop_name], [line_name], [machine_no] order by [occur_at], [id]),"
+            + " [occur_at]) as [interval_minutes] "
+            + "from "
+            + REPAIR_RECORD_TABLE
+            + " where "
+            + dsl.render(condition)
+            + ") "
+            + "select top (?) [factory_name] as [factoryName], [workshop_name] as [workshopName],"
+            + " [line_name] as [lineName], [machine_no] as [machineNo],"
+            + " count(*) as [failureCount],"
+            + " cast(avg(case when [is_fixed] = 1 then cast([repair_minutes] as decimal(18, 2))"
+            + " end) as decimal(18, 2)) as [mttrMinutes],"
+            + " cast(avg(cast([interval_minutes] as decimal(18, 2))) as decimal(18, 2))"
+            + " as [mtbfMinutes],"
+            + " sum(cast([down_minutes] as bigint)) as [downMinutes] "
+            + "from failures group by [factory_name], [workshop_name], [line_name], [machine_no] "
+            + "order by count(*) desc, sum(cast([down_minutes] as bigint)) desc";
+    List<Object> params = new ArrayList<>(dsl.extractBindValues(condition));
+    params.add(limit);
+    return dsl.resultQuery(sql, params.toArray()).fetchInto(RepairMachineStatsDto.class);
+  }
+
+  /** 按异常分类汇总 Down 机时间，按时长倒序并附占比与累计占比。 */
+  public List<RepairParetoItemDto> fetchDowntimePareto(Condition condition) {
+    String sql =
+        "with types as (select coalesce([abnormal_type_name], N'未分类') as [type_name],"
+            + " count(*) as [record_count],"
+            + " sum(cast(coalesce([down_minutes], 0) as bigint)) as [down_minutes] "
+            + "from "
+            + REPAIR_RECORD_TABLE
+            + " where "
+            + dsl.render(condition)
+            + " group by coalesce([abnormal_type_name], N'未分类')) "
+            + "select [type_name] as [abnormalTypeName], [record_count] as [recordCount],"
+            + " [down_minutes] as [downMinutes],"
+            + " cast([down_minutes] * 100.0 / nullif(sum([down_minutes]) over (), 0)"
+            + " as decimal(6, 2)) as [share],"
+            + " cast(sum([down_minutes]) over (order by [down_minutes] desc, [type_name]"
+            + " rows unbounded preceding) * 100.0 / nullif(sum([down_minutes]) over (), 0)"
+            + " as decimal(6, 2)) as [cumulativeShare] "
+            + "from types order by [down_minutes] desc, [type_name]";
+    return dsl.resultQuery(sql, dsl.extractBindValues(condition).toArray())
+        .fetchInto(RepairParetoItemDto.class);
+  }
+
+  /**
+   * 未修复记录账龄分布，区间固定且始终全部返回。
+   *
+   * @param now 计算账龄的当前时间（与 occur_at 同为应用本地时间）
+   */
+  public List<RepairAgingBucketDto> fetchOpenAging(Condition condition, LocalDateTime now) {
+    StringBuilder bucket = new StringBuilder("case");
+    for (int i = 0; i < AGING_UPPER_MINUTES.length; i++) {
+      bucket
+          .append(" when [age_minutes] < ")
+          .append(AGING_UPPER_MINUTES[i])
+          .append(" then ")
+          .append(i);
+    }
+    bucket.append(" else ").append(AGING_UPPER_MINUTES.length).append(" end");
+    String sql =
+        "select "
+            + bucket
+            + " as [bucket], count(*) as [record_count], max([age_minutes]) as [max_age_minutes] "
+            + "from (select datediff(minute, [occur_at], ?) as [age_minutes] from "
+            + REPAIR_RECORD_TABLE
+            + " where [is_fixed] = 0 and "
+            + dsl.render(condition)
+            + ") ages group by "
+            + bucket;
+    List<Object> params = new ArrayList<>();
+    params.add(now);
+    params.addAll(dsl.extractBindValues(condition));
+    List<RepairAgingBucketDto> buckets = new ArrayList<>(AGING_LABELS.length);
+    for (String label : AGING_LABELS) {
+      RepairAgingBucketDto dto = new RepairAgingBucketDto();
+      dto.setLabel(label);
+      dto.setRecordCount(0L);
+      buckets.add(dto);
+    }
+    for (Record record : dsl.resultQuery(sql, params.toArray()).fetch()) {
+      RepairAgingBucketDto dto = buckets.get(record.get(0, Integer.class));
+      dto.setRecordCount(record.get(1, Long.class));
+      dto.setMaxAgeMinutes(record.get(2, Long.class));
+    }
+    return buckets;
+  }
+}
@@ -2,15 +2,25 @@ package org.jdk.project.repository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import org.jdk.project.dto.repair.RepairRecordViewDto;
 import org.jooq.Condition;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SelectField;
+import org.jooq.SelectJoinStep;
 import org.jooq.SortField;
 import org.jooq.generated.tables.*;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 
 /** 维修记录数据访问。 */
@@ -22,7 +32,20 @@ public class RepairRecordRepository {
   private static final RepairRecordPerson REPAIR_RECORD_PERSON =
       RepairRecordPerson.REPAIR_RECORD_PERSON;
 
+  private static final int PERSON_LOOKUP_CHUNK_SIZE = 1000;
+  private static final String TOTAL_COUNT = "total_count";
+  private static final String PAGE_SUFFIX = " offset ? rows fetch next ? rows only";
+
+  private static final String INSERT_RECORD_SQL =
+      "insert into smtBackend.repair_record ([occur_at], [shift], [factory_name],"
+          + " [workshop_name], [line_name], [machine_no], [abnormal_category_name],"
+          + " [abnormal_type_name], [team_name], [responsible_person_name], [abnormal_desc],"
+          + " [solution], [is_fixed], [fixed_at], [repair_minutes], [down_minutes],"
+          + " [source_process_id])"
+          + " output inserted.id values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
   private final DSLContext dsl;
+  private final SqlRenderCache sqlRenderCache;
 
   public long count(Condition condition) {
     return dsl.selectCount().from(REPAIR_RECORD).where(condition).fetchOne(0, long.class);
@@ -30,8 +53,119 @@ public class RepairRecordRepository {
 
   public List<RepairRecordViewDto> fetchRecords(
       Condition condition, List<SortField<?>> orderBy, Integer limit, Integer offset) {
-    var select =
-        dsl.select(
+    String sql = recordSql(condition, orderBy, false);
+    List<Object> params = new ArrayList<>(dsl.extractBindValues(condition));
+    if (limit != null && offset != null) {
+      sql += PAGE_SUFFIX;
+      params.add(offset);
+      params.add(limit);
+    }
+    return dsl.resultQuery(sql, params.toArray()).fetchInto(RepairRecordViewDto.class);
+  }
+
+  /**
+   * 单条语句查询一页记录，includeTotal 为 true 时以 COUNT(*) OVER() 同时返回总数。
+   *
+   * <p>offset 超出范围导致本页为空时无法从窗口函数得到总数，此时补一次 count。
+   *
+   * @param limit 页大小
+   * @param offset 偏移量
+   * @param includeTotal 是否统计总数；为 false 时多取一行用于判断是否还有下一页
+   */
+  public RecordPage fetchRecordPage(
+      Condition condition,
+      List<SortField<?>> orderBy,
+      int limit,
+      int offset,
+      boolean includeTotal) {
+    String sql = recordSql(condition, orderBy, includeTotal) + PAGE_SUFFIX;
+    List<Object> params = new ArrayList<>(dsl.extractBindValues(condition));
+    params.add(offset);
+    params.add(includeTotal ? limit : limit + 1);
+    Result<Record> result = dsl.resultQuery(sql, params.toArray()).fetch();
+    List<RepairRecordViewDto> records = new ArrayList<>(Math.min(result.size(), limit));
+    for (int i = 0; i < result.size() && i < limit; i++) {
+      records.add(result.get(i).into(RepairRecordViewDto.class));
+    }
+    if (!includeTotal) {
+      return new RecordPage(records, null, result.size() > limit);
+    }
+    long total =
+        result.isEmpty()
+            ? (offset == 0 ? 0 : count(condition))
+            : result.get(0).get(TOTAL_COUNT, Long.class);
+    return new RecordPage(records, total, offset + records.size() < total);
+  }
+
+  /**
+   * 游标方式逐块读取维修记录（用于导出），每满 chunkSize 条回调一次，内存只保留当前块。
+   *
+   * @param condition 查询条件
+   * @param orderBy 排序（需包含 id 保证顺序稳定）
+   * @param chunkSize 每块条数（同时作为 JDBC fetchSize）
+   * @param chunkConsumer 块回调，回调返回后该块不再被引用
+   */
+  public void streamRecords(
+      Condition condition,
+      List<SortField<?>> orderBy,
+      int chunkSize,
+      Consumer<List<RepairRecordViewDto>> chunkConsumer) {
+    try (Cursor<Record> cursor =
+        dsl.resultQuery(
+                recordSql(condition, orderBy, false), dsl.extractBindValues(condition).toArray())
+            .fetchSize(chunkSize)
+            .fetchLazy()) {
+      List<RepairRecordViewDto> chunk = new ArrayList<>(chunkSize);
+      for (Record record : cursor) {
+        chunk.add(record.into(RepairRecordViewDto.class));
+        if (chunk.size() >= chunkSize) {
+          chunkConsumer.accept(chunk);
+          chunk = new ArrayList<>(chunkSize);
+        }
+      }
+      if (!chunk.isEmpty()) {
+        chunkConsumer.accept(chunk);
+      }
+    }
+  }
+
+  /**
+   * 拼接记录查询 SQL：select 列表与排序子句按形状缓存，仅条件部分每次渲染（条件由调用方动态构造）。
+   *
+   * @param orderBy 排序，为空时按 id 倒序
+   * @param includeTotal 是否附加 COUNT(*) OVER() 总数列
+   * @return 不含分页子句的 SQL，参数为条件中的绑定值
+   */
+  private String recordSql(Condition condition, List<SortField<?>> orderBy, boolean includeTotal) {
+    List<SortField<?>> sortFields =
+        orderBy == null || orderBy.isEmpty() ? List.of(REPAIR_RECORD.ID.desc()) : orderBy;
+    String selectSql =
+        sqlRenderCache.get(
+            "repairRecord.select|" + includeTotal,
+            () -> {
+              var select =
+                  includeTotal
+                      ? recordSelect(DSL.field("count(*) over ()", Long.class).as(TOTAL_COUNT))
+                      : recordSelect();
+              return select.getSQL() + " where ";
+            });
+    StringBuilder shape = new StringBuilder("repairRecord.orderBy");
+    for (SortField<?> sortField : sortFields) {
+      shape.append('|').append(sortField.getName()).append(' ').append(sortField.getOrder());
+    }
+    String orderBySql =
+        sqlRenderCache.get(
+            shape.toString(),
+            () ->
+                " order by "
+                    + String.join(", ", sortFields.stream().map(dsl::render).toList()));
+    return selectSql + dsl.render(condition) + orderBySql;
+  }
+
+  private SelectJoinStep<Record> recordSelect(SelectField<?>... extraFields) {
+    List<SelectField<?>> fields =
+        new ArrayList<>(
+            List.of(
                 REPAIR_RECORD.ID,
                 REPAIR_RECORD.OCCUR_AT,
                 REPAIR_RECORD.SHIFT,
@@ -48,32 +182,28 @@ public class RepairRecordRepository {
                 REPAIR_RECORD.REPAIR_MINUTES,
                 REPAIR_RECORD.DOWN_MINUTES,
                 REPAIR_RECORD.TEAM_NAME,
-                REPAIR_RECORD.RESPONSIBLE_PERSON_NAME)
-            .from(REPAIR_RECORD)
-            .where(condition);
-
-    var ordered =
-        orderBy == null || orderBy.isEmpty()
-            ? select.orderBy(REPAIR_RECORD.ID.desc())
-            : select.orderBy(orderBy);
-    if (limit == null || offset == null) {
-      return ordered.fetchInto(RepairRecordViewDto.class);
-    }
-    String sql = ordered.getSQL() + " offset ? rows fetch next ? rows only";
-    List<Object> params = new ArrayList<>(ordered.getBindValues());
-    params.add(offset);
-    params.add(limit);
-    return dsl.resultQuery(sql, params.toArray()).fetchInto(RepairRecordViewDto.class);
+                REPAIR_RECORD.RESPONSIBLE_PERSON_NAME));
+    fields.addAll(Arrays.asList(extraFields));
+    return dsl.select(fields).from(REPAIR_RECORD);
   }
 
+  /** 按记录ID批量查询维修人员，IN 列表按块拆分，避免超过 SQL Server 2100 个参数上限。 */
   public Map<Long, List<String>> fetchRepairPersonNameMap(List<Long> recordIds) {
     if (recordIds == null || recordIds.isEmpty()) {
       return Map.of();
     }
-    return dsl.select(REPAIR_RECORD_PERSON.REPAIR_RECORD_ID, REPAIR_RECORD_PERSON.PERSON_NAME)
-        .from(REPAIR_RECORD_PERSON)
-        .where(REPAIR_RECORD_PERSON.REPAIR_RECORD_ID.in(recordIds))
-        .fetchGroups(REPAIR_RECORD_PERSON.REPAIR_RECORD_ID, REPAIR_RECORD_PERSON.PERSON_NAME);
+    Map<Long, List<String>> result = new HashMap<>();
+    for (int start = 0; start < recordIds.size(); start += PERSON_LOOKUP_CHUNK_SIZE) {
+      List<Long> chunk =
+          recordIds.subList(start, Math.min(start + PERSON_LOOKUP_CHUNK_SIZE, recordIds.size()));
+      result.putAll(
+          dsl.select(REPAIR_RECORD_PERSON.REPAIR_RECORD_ID, REPAIR_RECORD_PERSON.PERSON_NAME)
+              .from(REPAIR_RECORD_PERSON)
+              .where(REPAIR_RECORD_PERSON.REPAIR_RECORD_ID.in(chunk))
+              .fetchGroups(
+                  REPAIR_RECORD_PERSON.REPAIR_RECORD_ID, REPAIR_RECORD_PERSON.PERSON_NAME));
+    }
+    return result;
   }
 
   public Long insertRecord(
@@ -94,14 +224,8 @@ public class RepairRecordRepository {
       Integer repairMinutes,
       Integer downMinutes,
       Long sourceProcessId) {
-    String sql =
-        "insert into smtBackend.repair_record ([occur_at], [shift], [factory_name],"
-            + " [workshop_name], [line_name], [machine_no], [abnormal_category_name],"
-            + " [abnormal_type_name], [team_name], [responsible_person_name], [abnormal_desc],"
-            + " [solution], [is_fixed], [fixed_at], [repair_minutes], [down_minutes], [source_process_id])"
-            + " output inserted.id values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     return dsl.resultQuery(
-            sql,
+            INSERT_RECORD_SQL,
             occurAt,
             shift,
             factoryName,
@@ -122,14 +246,32 @@ public class RepairRecordRepository {
         .fetchOne(0, Long.class);
   }
 
-  public Long fetchIdBySourceProcessId(Long sourceProcessId) {
-    if (sourceProcessId == null) {
-      return null;
+  /**
+   * 由制程段快照批量生成维修记录，单条 INSERT ... SELECT（已生成过的跳过）。
+   *
+   * <p>ID 列表以单个逗号分隔参数传入（STRING_SPLIT），语句与参数数量不随 ID 数量增长。
+   *
+   * @param processIds 制程段ID
+   * @return 新增条数
+   */
+  public int insertRecordsForProcesses(Collection<Long> processIds) {
+    if (processIds == null || processIds.isEmpty()) {
+      return 0;
     }
-    return dsl.select(REPAIR_RECORD.ID)
-        .from(REPAIR_RECORD)
-        .where(REPAIR_RECORD.SOURCE_PROCESS_ID.eq(sourceProcessId))
-        .fetchOne(REPAIR_RECORD.ID);
+    String sql =
+        "insert into smtBackend.repair_record ([occur_at], [shift], [factory_name],"
+            + " [workshop_name], [line_name], [machine_no], [abnormal_desc], [is_fixed],"
+            + " [down_minutes], [source_process_id])"
+            + " select cast(h.[prod_date] as datetime2), h.[shift], h.[factory_name],"
+            + " h.[workshop_name], h.[line_name], p.[machine_no], p.[fa], 0, p.[down_minutes],"
+            + " p.[id]"
+            + " from smtBackend.production_daily_process p"
+            + " join smtBackend.production_daily_header h on h.[id] = p.[header_id]"
+            + " where p.[id] in (select cast([value] as bigint) from string_split(?, ','))"
+            + " and p.[fa] is not null"
+            + " and not exists (select 1 from smtBackend.repair_record r"
+            + " where r.[source_process_id] = p.[id])";
+    return dsl.execute(sql, joinIds(processIds));
   }
 
   public Long fetchSourceProcessId(Long recordId) {
@@ -207,4 +349,26 @@ public class RepairRecordRepository {
             .toList();
     dsl.batch(inserts).execute();
   }
+
+  private String joinIds(Collection<Long> ids) {
+    StringBuilder joined = new StringBuilder();
+    for (Long id : ids) {
+      if (id == null) {
+        continue;
+      }
+      if (!joined.isEmpty()) {
+        joined.append(',');
+      }
+      joined.append(id);
+    }
+    return joined.toString();
+  }
+
+  /**
+   * 一页维修记录。
+   *
+   * @param total 总条数，未统计时为 null
+   * @param hasMore 是否还有下一页
+   */
+  public record RecordPage(List<RepairRecordViewDto> records, Long total, boolean hasMore) {}
 }
@@ -0,0 +1,46 @@
+package org.jdk.project.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已渲染 SQL 缓存。
+ *
+ * <p>- 高频查询按"形状"（启用的筛选项、排序等决定 SQL 文本的因素）缓存 jOOQ 渲染结果，之后只需绑定参数执行； - SQL 文本固定也便于驱动端语句池复用预编译语句。
+ * 键必须完全决定 SQL 文本，参数值不得参与。
+ */
+@Component
+public class SqlRenderCache {
+
+  private static final String CACHE_NAME = "sqlRender";
+
+  private final Cache<String, String> cache;
+
+  /**
+   * 通过配置构造缓存。
+   *
+   * @param maxSize 最大缓存条数（形状数量有限，仅作上限保护）
+   * @param meterRegistry 指标注册表
+   */
+  public SqlRenderCache(
+      @Value("${jooq.render-cache.max-size:500}") long maxSize, MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * 读取已渲染 SQL，未命中时渲染并写入。
+   *
+   * @param shape 形状键
+   * @param renderer 渲染函数，仅在未命中时调用
+   * @return SQL 文本（参数为 ? 占位符）
+   */
+  public String get(String shape, Supplier<String> renderer) {
+    return cache.get(shape, key -> renderer.get());
+  }
+}
@@ -0,0 +1,275 @@
+package org.jdk.project.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.jdk.project.dto.export.ExportJobDto;
+import org.jdk.project.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 异步导出任务服务。
+ *
+ * <p>- 提交后立即返回任务ID，由有界线程池把 xlsx 写入本地暂存目录，不再占用请求线程； - 同一用户相同类型、相同条件的任务在排队/生成中时直接复用；
+ * - 文件生成完成后保留 TTL，过期由定时任务清理。任务信息仅保存在内存中，重启后暂存目录会被清空。
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+  public static final String STATUS_QUEUED = "QUEUED";
+  public static final String STATUS_RUNNING = "RUNNING";
+  public static final String STATUS_DONE = "DONE";
+  public static final String STATUS_FAILED = "FAILED";
+
+  private static final String FILE_SUFFIX = ".xlsx";
+  private static final String PART_SUFFIX = ".part";
+  private static final DateTimeFormatter FILE_TIME_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+  /** 导出内容写入器。 */
+  @FunctionalInterface
+  public interface ExportWriter {
+    void write(OutputStream outputStream) throws IOException;
+  }
+
+  private final Path spoolDir;
+  private final Duration ttl;
+  private final ThreadPoolExecutor executor;
+  private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+  // 去重键 -> 排队/生成中的任务ID
+  private final Map<String, String> inflight = new ConcurrentHashMap<>();
+
+  /**
+   * 通过配置构造导出线程池与暂存目录。
+   *
+   * @param spoolDir 暂存目录
+   * @param workerThreads 并发生成的任务数
+   * @param queueCapacity 排队任务上限，超出时拒绝提交
+   * @param ttlMinutes 文件保留时间，单位：分钟
+   * @param virtualThreads 是否以虚拟线程执行（virtual-threads profile），并发数仍受 workerThreads 限制
+   */
+  public ExportJobService(
+      @Value("${export.spool-dir:${java.io.tmpdir}/smt-export}") String spoolDir,
+      @Value("${export.worker-threads:2}") int workerThreads,
+      @Value("${export.queue-capacity:20}") int queueCapacity,
+      @Value("${export.ttl-minutes:60}") long ttlMinutes,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads)
+      throws IOException {
+    this.spoolDir = Paths.get(spoolDir);
+    this.ttl = Duration.ofMinutes(ttlMinutes);
+    Files.createDirectories(this.spoolDir);
+    purgeSpoolDir();
+    ThreadFactory threadFactory;
+    if (virtualThreads) {
+      threadFactory = new VirtualThreadTaskExecutor("export-worker-").getVirtualThreadFactory();
+    } else {
+      AtomicInteger threadIndex = new AtomicInteger();
+      threadFactory =
+          runnable -> {
+            Thread thread = new Thread(runnable, "export-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          };
+    }
+    this.executor =
+        new ThreadPoolExecutor(
+            workerThreads,
+            workerThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory);
+  }
+
+  /**
+   * 提交导出任务。
+   *
+   * @param type 导出类型
+   * @param owner 提交人（仅本人可查询与下载）
+   * @param query 导出条件，toString 参与去重
+   * @param fileNamePrefix 下载文件名前缀
+   * @param writer 导出内容写入器（在工作线程执行）
+   * @return 新建或复用的任务
+   */
+  public ExportJobDto submit(
+      String type, String owner, Object query, String fileNamePrefix, ExportWriter writer) {
+    String dedupKey = type + "|" + owner + "|" + query;
+    ExportJob job =
+        new ExportJob(
+            UUID.randomUUID().toString(),
+            type,
+            owner,
+            dedupKey,
+            fileNamePrefix + "_" + LocalDateTime.now().format(FILE_TIME_FORMAT) + FILE_SUFFIX);
+    jobs.put(job.id, job);
+    // 在去重键上原子地判断复用还是占用：旧任务仍在则复用，旧任务刚好结束或已清理则由新任务占用
+    AtomicReference<ExportJob> existing = new AtomicReference<>();
+    inflight.compute(
+        dedupKey,
+        (key, currentId) -> {
+          ExportJob current = currentId == null ? null : jobs.get(currentId);
+          if (current != null) {
+            existing.set(current);
+            return currentId;
+          }
+          return job.id;
+        });
+    if (existing.get() != null) {
+      jobs.remove(job.id);
+      return toDto(existing.get());
+    }
+    try {
+      executor.execute(() -> run(job, writer));
+    } catch (RejectedExecutionException ex) {
+      jobs.remove(job.id);
+      inflight.remove(dedupKey, job.id);
+      throw new BusinessException("导出任务过多，请稍后再试");
+    }
+    return toDto(job);
+  }
+
+  /** 查询任务状态。 */
+  public ExportJobDto get(String id, String owner) {
+    return toDto(requireJob(id, owner));
+  }
+
+  /** 获取已生成的导出文件路径。 */
+  public Path getFile(String id, String owner) {
+    ExportJob job = requireJob(id, owner);
+    if (!STATUS_DONE.equals(job.status)) {
+      throw new BusinessException("导出文件尚未生成");
+    }
+    Path file = spoolDir.resolve(job.id + FILE_SUFFIX);
+    if (!Files.exists(file)) {
+      throw new BusinessException("导出文件已过期");
+    }
+    return file;
+  }
+
+  /** 清理超过保留时间的已结束任务及其文件。 */
+  @Scheduled(fixedDelayString = "${export.cleanup-interval-ms:60000}")
+  public void cleanExpired() {
+    LocalDateTime deadline = LocalDateTime.now().minus(ttl);
+    for (ExportJob job : jobs.values()) {
+      if (job.finishedAt != null && job.finishedAt.isBefore(deadline)) {
+        jobs.remove(job.id);
+        deleteQuietly(spoolDir.resolve(job.id + FILE_SUFFIX));
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void run(ExportJob job, ExportWriter writer) {
+    job.status = STATUS_RUNNING;
+    Path part = spoolDir.resolve(job.id + PART_SUFFIX);
+    try {
+      try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(part))) {
+        writer.write(outputStream);
+      }
+      Path file = spoolDir.resolve(job.id + FILE_SUFFIX);
+      Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+      job.size = Files.size(file);
+      job.status = STATUS_DONE;
+    } catch (BusinessException ex) {
+      job.error = ex.getMessage();
+      job.status = STATUS_FAILED;
+    } catch (Exception ex) {
+      log.error("导出任务失败: id={}, type={}", job.id, job.type, ex);
+      job.error = "导出失败";
+      job.status = STATUS_FAILED;
+    } finally {
+      deleteQuietly(part);
+      job.finishedAt = LocalDateTime.now();
+      inflight.remove(job.dedupKey, job.id);
+    }
+  }
+
+  private ExportJob requireJob(String id, String owner) {
+    ExportJob job = jobs.get(id);
+    if (job == null || !job.owner.equals(owner)) {
+      throw new BusinessException("导出任务不存在");
+    }
+    return job;
+  }
+
+  private void purgeSpoolDir() throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(FILE_SUFFIX) || name.endsWith(PART_SUFFIX)) {
+          deleteQuietly(file);
+        }
+      }
+    }
+  }
+
+  private void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      log.warn("删除导出文件失败: {}", file, ex);
+    }
+  }
+
+  private ExportJobDto toDto(ExportJob job) {
+    ExportJobDto dto = new ExportJobDto();
+    dto.setId(job.id);
+    dto.setType(job.type);
+    dto.setStatus(job.status);
+    dto.setFileName(job.fileName);
+    dto.setSize(job.size);
+    dto.setError(job.error);
+    dto.setCreatedAt(job.createdAt);
+    dto.setFinishedAt(job.finishedAt);
+    return dto;
+  }
+
+  private static final class ExportJob {
+    private final String id;
+    private final String type;
+    private final String owner;
+    private final String dedupKey;
+    private final String fileName;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile String status = STATUS_QUEUED;
+    private volatile Long size;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    private ExportJob(String id, String type, String owner, String dedupKey, String fileName) {
+      this.id = id;
+      this.type = type;
+      this.owner = owner;
+      this.dedupKey = dedupKey;
+      this.fileName = fileName;
+    }
+  }
+}
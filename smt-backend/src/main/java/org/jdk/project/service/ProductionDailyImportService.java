@@ -0,0 +1,290 @@
+package org.jdk.project.service;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.exception.ExcelDataConvertException;
+import com.alibaba.excel.exception.ExcelRuntimeException;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.read.listener.ReadListener;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.jdk.project.dto.production.ProductionDailyImportErrorDto;
+import org.jdk.project.dto.production.ProductionDailyImportResultDto;
+import org.jdk.project.dto.production.ProductionDailyImportRow;
+import org.jdk.project.dto.production.ProductionDailyProcessRequest;
+import org.jdk.project.dto.production.ProductionDailyProcessViewDto;
+import org.jdk.project.exception.BusinessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * 每日产能 Excel 导入服务。
+ *
+ * <p>- 以 EasyExcel 逐行解析，校验规则与 saveBatch 一致，不合法的行记录到错误报告并跳过； - 合法行每满一批按班别表头分组集合写入，每批一个事务，
+ * 行数据只保留当前批； - 文件内重复校验需记住已出现的唯一键，内存随行数增长，最多记录 {@value #MAX_TRACKED_KEYS} 个，
+ * 超出后只在同一批内校验重复，跨批重复的行按唯一键覆盖先导入的行； - 某批写入失败时该批全部行记为失败，其余批次不受影响。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductionDailyImportService {
+
+  private static final int IMPORT_CHUNK_SIZE = 500;
+  private static final int MAX_REPORTED_ERRORS = 1000;
+  // 文件内重复校验记录的唯一键上限（约数十 MB）
+  private static final int MAX_TRACKED_KEYS = 200_000;
+  private static final String SUMMARY_ROW_SUFFIX = "合计";
+  private static final DateTimeFormatter SLASH_DATE_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy/M/d");
+  private static final List<String> REQUIRED_HEADS =
+      List.of(
+          "日期",
+          "厂区",
+          "车间",
+          "线别",
+          "班别",
+          "制程段",
+          "机台号",
+          "生产料号",
+          "系列",
+          "CT",
+          "目前投入设备量",
+          "投产时间(min)",
+          "目标产能(K)",
+          "实际产出",
+          "理论Down机时间(min)");
+
+  private final ProductionDailyService productionDailyService;
+
+  /**
+   * 导入第一个工作表（首行为表头）。
+   *
+   * @param inputStream xlsx/xls 文件流
+   * @return 导入结果与失败行明细
+   */
+  public ProductionDailyImportResultDto importExcel(InputStream inputStream) {
+    ImportListener listener = new ImportListener();
+    try {
+      EasyExcel.read(inputStream, ProductionDailyImportRow.class, listener).sheet().doRead();
+    } catch (ExcelRuntimeException ex) {
+      // 监听器中抛出的业务异常（如缺少列）可能被 EasyExcel 包装
+      BusinessException businessException =
+          ExceptionUtils.throwableOfType(ex, BusinessException.class);
+      if (businessException != null) {
+        throw businessException;
+      }
+      log.warn("每日产能导入文件解析失败", ex);
+      throw new BusinessException("导入文件无法解析，请使用 xlsx 或 xls 格式");
+    }
+    return listener.result();
+  }
+
+  private LocalDate parseProdDate(String value) {
+    String text = StringUtils.trimToNull(value);
+    if (text == null) {
+      return null;
+    }
+    try {
+      return text.contains("/") ? LocalDate.parse(text, SLASH_DATE_FORMAT) : LocalDate.parse(text);
+    } catch (DateTimeParseException ex) {
+      throw new BusinessException("日期格式不正确，应为 yyyy-MM-dd");
+    }
+  }
+
+  /** 班别兼容导出文件的 白/夜 写法。 */
+  private String parseShift(String value) {
+    String text = StringUtils.trimToNull(value);
+    if ("白".equals(text) || "白班".equals(text)) {
+      return "DAY";
+    }
+    if ("夜".equals(text) || "夜班".equals(text)) {
+      return "NIGHT";
+    }
+    return text;
+  }
+
+  private ProductionDailyProcessRequest toProcessRequest(ProductionDailyImportRow row) {
+    ProductionDailyProcessRequest process = new ProductionDailyProcessRequest();
+    process.setMachineNo(row.getMachineNo());
+    process.setProcessName(row.getProcessName());
+    process.setProductCode(row.getProductCode());
+    process.setSeriesName(row.getSeriesName());
+    process.setCt(row.getCt());
+    process.setEquipmentCount(row.getEquipmentCount());
+    process.setRunMinutes(row.getRunMinutes());
+    process.setTargetOutput(row.getTargetOutput());
+    process.setActualOutput(row.getActualOutput());
+    process.setDownMinutes(row.getDownMinutes());
+    process.setFa(row.getFa());
+    process.setCa(row.getCa());
+    return process;
+  }
+
+  private boolean isBlankRow(ProductionDailyImportRow row) {
+    return StringUtils.isAllBlank(
+            row.getProdDate(),
+            row.getFactoryName(),
+            row.getWorkshopName(),
+            row.getLineName(),
+            row.getShift(),
+            row.getProcessName(),
+            row.getMachineNo(),
+            row.getProductCode(),
+            row.getSeriesName(),
+            row.getFa(),
+            row.getCa())
+        && row.getCt() == null
+        && row.getEquipmentCount() == null
+        && row.getRunMinutes() == null
+        && row.getTargetOutput() == null
+        && row.getActualOutput() == null
+        && row.getDownMinutes() == null;
+  }
+
+  /** 单次导入的读取监听器，非线程安全。 */
+  private final class ImportListener implements ReadListener<ProductionDailyImportRow> {
+
+    private final List<ProductionDailyProcessViewDto> pending = new ArrayList<>();
+    private final List<Integer> pendingRowNumbers = new ArrayList<>();
+    // 表头 + 制程段 + 机台号 -> 首次出现的行号；seenKeys 跨批保留（有上限），batchKeys 随批清空
+    private final Map<String, Integer> seenKeys = new HashMap<>();
+    private final Map<String, Integer> batchKeys = new HashMap<>();
+    private final List<ProductionDailyImportErrorDto> errors = new ArrayList<>();
+    private int totalRows;
+    private int importedRows;
+    private int failedRows;
+
+    @Override
+    public void invokeHead(Map<Integer, ReadCellData<?>> headMap, AnalysisContext context) {
+      Set<String> heads = new HashSet<>();
+      for (ReadCellData<?> cell : headMap.values()) {
+        if (cell != null && cell.getStringValue() != null) {
+          heads.add(cell.getStringValue().trim());
+        }
+      }
+      List<String> missing =
+          REQUIRED_HEADS.stream().filter(head -> !heads.contains(head)).toList();
+      if (!missing.isEmpty()) {
+        throw new BusinessException("导入文件缺少列: " + String.join("、", missing));
+      }
+    }
+
+    @Override
+    public void invoke(ProductionDailyImportRow row, AnalysisContext context) {
+      int rowNumber = context.readRowHolder().getRowIndex() + 1;
+      if (isBlankRow(row) || StringUtils.endsWith(row.getProdDate(), SUMMARY_ROW_SUFFIX)) {
+        return;
+      }
+      totalRows++;
+      ProductionDailyProcessViewDto process;
+      try {
+        process =
+            productionDailyService.normalizeImportRow(
+                parseProdDate(row.getProdDate()),
+                parseShift(row.getShift()),
+                row.getFactoryName(),
+                row.getWorkshopName(),
+                row.getLineName(),
+                toProcessRequest(row));
+      } catch (BusinessException ex) {
+        addError(rowNumber, ex.getMessage());
+        return;
+      }
+      String key =
+          String.join(
+              "|",
+              String.valueOf(process.getProdDate()),
+              process.getShift(),
+              process.getFactoryName(),
+              process.getWorkshopName(),
+              process.getLineName(),
+              process.getProcessName(),
+              process.getMachineNo());
+      Integer firstRow = batchKeys.putIfAbsent(key, rowNumber);
+      if (firstRow == null) {
+        firstRow = seenKeys.get(key);
+      }
+      if (firstRow != null) {
+        addError(rowNumber, "同一班别下制程段与机台号不能重复（与第 " + firstRow + " 行重复）");
+        return;
+      }
+      if (seenKeys.size() < MAX_TRACKED_KEYS) {
+        seenKeys.put(key, rowNumber);
+      }
+      pending.add(process);
+      pendingRowNumbers.add(rowNumber);
+      if (pending.size() >= IMPORT_CHUNK_SIZE) {
+        flush();
+      }
+    }
+
+    /** 单元格类型转换失败（如数量列填了文字）只记录该行，其余异常中止导入。 */
+    @Override
+    public void onException(Exception exception, AnalysisContext context) throws Exception {
+      if (exception instanceof ExcelDataConvertException convertException) {
+        totalRows++;
+        addError(
+            convertException.getRowIndex() + 1,
+            "第 " + (convertException.getColumnIndex() + 1) + " 列格式不正确");
+        return;
+      }
+      throw exception;
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+      flush();
+    }
+
+    private void flush() {
+      if (pending.isEmpty()) {
+        return;
+      }
+      try {
+        productionDailyService.saveImportChunk(pending);
+        importedRows += pending.size();
+      } catch (BusinessException ex) {
+        pendingRowNumbers.forEach(rowNumber -> addError(rowNumber, ex.getMessage()));
+      } catch (RuntimeException ex) {
+        log.error(
+            "每日产能导入写入失败: rows {}~{}",
+            pendingRowNumbers.get(0),
+            pendingRowNumbers.get(pendingRowNumbers.size() - 1),
+            ex);
+        pendingRowNumbers.forEach(rowNumber -> addError(rowNumber, "保存失败"));
+      } finally {
+        pending.clear();
+        pendingRowNumbers.clear();
+        batchKeys.clear();
+      }
+    }
+
+    private void addError(int rowNumber, String message) {
+      failedRows++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new ProductionDailyImportErrorDto(rowNumber, message));
+      }
+    }
+
+    private ProductionDailyImportResultDto result() {
+      ProductionDailyImportResultDto result = new ProductionDailyImportResultDto();
+      result.setTotalRows(totalRows);
+      result.setImportedRows(importedRows);
+      result.setFailedRows(failedRows);
+      result.setErrors(errors);
+      result.setErrorsTruncated(failedRows > errors.size());
+      return result;
+    }
+  }
+}
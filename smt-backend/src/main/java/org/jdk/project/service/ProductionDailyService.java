@@ -1,8 +1,12 @@
 package org.jdk.project.service;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.builder.ExcelWriterBuilder;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URLEncoder;
@@ -10,25 +14,29 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.jdk.project.config.metrics.ExportMetrics;
+import org.jdk.project.dto.PageRequestDto;
+import org.jdk.project.dto.PageResponseDto;
 import org.jdk.project.dto.production.ProductionDailyBatchRequest;
 import org.jdk.project.dto.production.ProductionDailyExportDto;
 import org.jdk.project.dto.production.ProductionDailyProcessRequest;
 import org.jdk.project.dto.production.ProductionDailyProcessViewDto;
 import org.jdk.project.dto.production.ProductionDailyQueryDto;
 import org.jdk.project.dto.production.ProductionDailyResponse;
+import org.jdk.project.dto.production.ProductionDailyStatsDto;
 import org.jdk.project.exception.BusinessException;
 import org.jdk.project.repository.ProductionDailyRepository;
-import org.jdk.project.repository.RepairRecordRepository;
-import org.jdk.project.utils.excel.ColumnCenterStyleStrategy;
-import org.jdk.project.utils.excel.ColumnFillStyleStrategy;
-import org.jdk.project.utils.excel.CompactColumnWidthStyleStrategy;
-import org.jdk.project.utils.excel.GroupColMergeStrategy;
-import org.jdk.project.utils.excel.SummaryRowMergeStrategy;
-import org.jdk.project.utils.excel.SummaryRowFillStyleStrategy;
+import org.jdk.project.utils.SeekCursorUtils;
+import org.jdk.project.utils.excel.ExportLayout;
+import org.jdk.project.utils.excel.ExportLayoutWriteHandler;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,8 +46,23 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ProductionDailyService {
 
+  private static final String EXPORT_SHEET_NAME = "每日产能";
+  private static final String EXPORT_METRIC_NAME = "productionDaily";
+  private static final int EXPORT_CHUNK_SIZE = 1000;
+  private static final int EXPORT_HEAD_ROWS = 1;
+  // 列序与 ProductionDailyExportDto 一致：0~3 日期/厂区/车间/线别，4 班别，合计行横向合并至 11 投产时间
+  private static final int EXPORT_GROUP_LAST_COL = 3;
+  private static final int EXPORT_SHIFT_COL = 4;
+  private static final int EXPORT_SUMMARY_MERGE_LAST_COL = 11;
+  private static final String RECORD_SORT_PROD_DATE = "prodDate";
+  private static final List<String> STATS_PERIODS = List.of("DAY", "WEEK", "MONTH");
+  // 汇总维度按层级排列，ROLLUP 按此顺序逐级生成小计
+  private static final List<String> STATS_DIMENSIONS =
+      List.of("factory", "workshop", "line", "process", "series");
+
   private final ProductionDailyRepository productionDailyRepository;
-  private final RepairRecordRepository repairRecordRepository;
+  private final RepairRecordSyncService repairRecordSyncService;
+  private final ExportMetrics exportMetrics;
 
   public ProductionDailyResponse get(
       LocalDate prodDate, String shift, String factoryName, String workshopName, String lineName) {
@@ -73,25 +96,21 @@ public class ProductionDailyService {
     String workshopName = normalizeRequiredText(request.getWorkshopName(), "车间不能为空");
     String lineName = normalizeRequiredText(request.getLineName(), "线别不能为空");
 
-    Long headerId =
-        productionDailyRepository.findHeaderId(
-            prodDate, shift, factoryName, workshopName, lineName);
-    if (headerId == null) {
-      headerId =
-          productionDailyRepository.insertHeader(
-              prodDate, shift, factoryName, workshopName, lineName);
-      if (headerId == null) {
-        headerId =
-            productionDailyRepository.findHeaderId(
-                prodDate, shift, factoryName, workshopName, lineName);
-      }
-    }
-    if (headerId == null) {
-      throw new BusinessException("产能班别创建失败");
-    }
+    Long headerId = resolveHeaderId(prodDate, shift, factoryName, workshopName, lineName);
+    List<ProductionDailyProcessViewDto> processes = new ArrayList<>();
+    Set<String> processKeys = new HashSet<>();
+    Set<Long> processIds = new HashSet<>();
     for (ProductionDailyProcessRequest process : request.getProcesses()) {
-      saveProcess(headerId, prodDate, shift, factoryName, workshopName, lineName, process);
+      ProductionDailyProcessViewDto normalized = normalizeProcess(process);
+      if (!processKeys.add(normalized.getProcessName() + "|" + normalized.getMachineNo())) {
+        throw new BusinessException("同一班别下制程段与机台号不能重复");
+      }
+      if (normalized.getId() != null && !processIds.add(normalized.getId())) {
+        throw new BusinessException("产能明细重复提交");
+      }
+      processes.add(normalized);
     }
+    saveProcesses(headerId, prodDate, shift, factoryName, workshopName, lineName, processes);
     ProductionDailyResponse response = new ProductionDailyResponse();
     response.setHeaderId(headerId);
     response.setProdDate(prodDate);
@@ -103,25 +122,266 @@ public class ProductionDailyService {
     return response;
   }
 
+  /**
+   * 校验并规范化一行导入数据，规则与 saveBatch 一致（含 @Valid 的必填校验）。
+   *
+   * @param process 明细（不携带 id，按表头 + 制程段 + 机台号匹配）
+   * @return 带表头字段的规范化明细
+   */
+  public ProductionDailyProcessViewDto normalizeImportRow(
+      LocalDate prodDate,
+      String shift,
+      String factoryName,
+      String workshopName,
+      String lineName,
+      ProductionDailyProcessRequest process) {
+    if (prodDate == null) {
+      throw new BusinessException("日期不能为空");
+    }
+    String normalizedShift = normalizeShift(shift);
+    String normalizedFactory = normalizeRequiredText(factoryName, "厂区不能为空");
+    String normalizedWorkshop = normalizeRequiredText(workshopName, "车间不能为空");
+    String normalizedLine = normalizeRequiredText(lineName, "线别不能为空");
+    requireValue(process.getEquipmentCount(), "投入设备量不能为空");
+    requireValue(process.getRunMinutes(), "投产时间不能为空");
+    requireValue(process.getTargetOutput(), "目标产能不能为空");
+    requireValue(process.getActualOutput(), "实际产出不能为空");
+    requireValue(process.getDownMinutes(), "理论Down机时间不能为空");
+    if (process.getCt() != null && process.getCt().signum() < 0) {
+      throw new BusinessException("CT不能为负数");
+    }
+    ProductionDailyProcessViewDto normalized = normalizeProcess(process);
+    normalized.setProdDate(prodDate);
+    normalized.setShift(normalizedShift);
+    normalized.setFactoryName(normalizedFactory);
+    normalized.setWorkshopName(normalizedWorkshop);
+    normalized.setLineName(normalizedLine);
+    return normalized;
+  }
+
+  /**
+   * 保存一批已规范化的导入明细：按班别表头分组，每组一次集合写入（MERGE），整批一个事务。
+   *
+   * @param processes normalizeImportRow 的结果，同一批内表头 + 制程段 + 机台号不重复
+   */
+  @Transactional(rollbackFor = Throwable.class)
+  public void saveImportChunk(List<ProductionDailyProcessViewDto> processes) {
+    Map<String, List<ProductionDailyProcessViewDto>> groups = new LinkedHashMap<>();
+    for (ProductionDailyProcessViewDto process : processes) {
+      String key =
+          String.join(
+              "|",
+              String.valueOf(process.getProdDate()),
+              process.getShift(),
+              process.getFactoryName(),
+              process.getWorkshopName(),
+              process.getLineName());
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(process);
+    }
+    for (List<ProductionDailyProcessViewDto> group : groups.values()) {
+      ProductionDailyProcessViewDto first = group.get(0);
+      Long headerId =
+          resolveHeaderId(
+              first.getProdDate(),
+              first.getShift(),
+              first.getFactoryName(),
+              first.getWorkshopName(),
+              first.getLineName());
+      saveProcesses(
+          headerId,
+          first.getProdDate(),
+          first.getShift(),
+          first.getFactoryName(),
+          first.getWorkshopName(),
+          first.getLineName(),
+          group);
+    }
+  }
+
   public void export(HttpServletResponse response, ProductionDailyQueryDto query)
       throws IOException {
+    validateExportQuery(query);
+    prepareExportResponse(response);
+    export(response.getOutputStream(), query);
+  }
+
+  /** 校验导出条件（提交异步导出前调用，尽早返回错误）。 */
+  public void validateExportQuery(ProductionDailyQueryDto query) {
+    if (query.getFrom() == null || query.getTo() == null) {
+      throw new BusinessException("导出日期范围不能为空");
+    }
+  }
+
+  /** 按条件导出到输出流（同步下载与异步导出任务共用）。 */
+  public void export(OutputStream outputStream, ProductionDailyQueryDto query) {
+    validateExportQuery(query);
     LocalDate from = query.getFrom();
     LocalDate to = query.getTo();
-    if (from == null || to == null) {
-      throw new BusinessException("导出日期范围不能为空");
+    String shift = normalizeShiftNullable(query.getShift());
+    String factoryName = normalizeText(query.getFactoryName());
+    String workshopName = normalizeText(query.getWorkshopName());
+    String lineName = normalizeText(query.getLineName());
+    // 游标读取 + 分块写入，内存占用与日期范围无关
+    ExportLayout layout = newExportLayout();
+    ExportMetrics.ExportTimer timer = exportMetrics.start(EXPORT_METRIC_NAME);
+    try (ExcelWriter excelWriter = exportWriterBuilder(outputStream, layout).build()) {
+      WriteSheet writeSheet = EasyExcel.writerSheet(EXPORT_SHEET_NAME).build();
+      List<ProductionDailyExportDto> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+      ExportRowCollector collector = new ExportRowCollector(chunk, layout);
+      productionDailyRepository.streamProcessesForExport(
+          from,
+          to,
+          shift,
+          factoryName,
+          workshopName,
+          lineName,
+          EXPORT_CHUNK_SIZE,
+          record -> {
+            collector.add(record);
+            if (chunk.size() >= EXPORT_CHUNK_SIZE) {
+              timer.write(() -> excelWriter.write(chunk, writeSheet));
+              chunk.clear();
+            }
+          });
+      collector.finish();
+      timer.write(() -> excelWriter.write(chunk, writeSheet));
+      timer.finish(excelWriter::finish);
     }
+  }
+
+  /**
+   * 分页查询生产记录：按 (prod_date, shift, id) 游标分页，仅支持按 prodDate 指定方向（默认倒序）。
+   *
+   * @param query 筛选条件（日期范围可选）
+   * @param pageRequest 页大小与排序
+   * @param cursor 上一页返回的 nextCursor，首页为空
+   * @return 仅首页统计并返回 total，后续页 total 为空
+   */
+  public PageResponseDto<List<ProductionDailyProcessViewDto>> listRecords(
+      ProductionDailyQueryDto query, PageRequestDto pageRequest, String cursor) {
+    LocalDate from = query.getFrom();
+    LocalDate to = query.getTo();
     String shift = normalizeShiftNullable(query.getShift());
     String factoryName = normalizeText(query.getFactoryName());
     String workshopName = normalizeText(query.getWorkshopName());
     String lineName = normalizeText(query.getLineName());
+    PageRequestDto.Direction direction = PageRequestDto.Direction.DESC;
+    Map<String, PageRequestDto.Direction> sortBy = pageRequest.getSortBy();
+    if (sortBy != null && !sortBy.isEmpty()) {
+      if (sortBy.size() > 1 || !sortBy.containsKey(RECORD_SORT_PROD_DATE)) {
+        throw new BusinessException("生产记录仅支持按 prodDate 排序");
+      }
+      direction = sortBy.get(RECORD_SORT_PROD_DATE);
+    }
+    LocalDate afterProdDate = null;
+    String afterShift = null;
+    Long afterId = null;
+    if (StringUtils.isNotEmpty(cursor)) {
+      List<String> parts = SeekCursorUtils.decode(cursor, 4);
+      if (!direction.name().equals(parts.get(0))) {
+        throw new BusinessException("分页游标与排序条件不一致");
+      }
+      try {
+        afterProdDate = LocalDate.parse(parts.get(1));
+        afterShift = parts.get(2);
+        afterId = Long.valueOf(parts.get(3));
+      } catch (RuntimeException ex) {
+        throw new BusinessException("分页游标无效", ex);
+      }
+    }
+    // 总数只在首页统计，翻页（加载更多）时不再重复全量 count
+    Long total = null;
+    if (StringUtils.isEmpty(cursor)) {
+      total =
+          productionDailyRepository.countProcesses(
+              from, to, shift, factoryName, workshopName, lineName);
+      if (total == 0) {
+        return PageResponseDto.ofCursor(List.of(), null, 0L);
+      }
+    }
+    int size = Math.toIntExact(pageRequest.getSize());
     List<ProductionDailyProcessViewDto> records =
-        productionDailyRepository.fetchProcessesForExport(
-            from, to, shift, factoryName, workshopName, lineName);
-    writeExport(response, records);
+        productionDailyRepository.fetchProcessPage(
+            from,
+            to,
+            shift,
+            factoryName,
+            workshopName,
+            lineName,
+            direction == PageRequestDto.Direction.ASC,
+            afterProdDate,
+            afterShift,
+            afterId,
+            size + 1);
+    String nextCursor = null;
+    if (records.size() > size) {
+      records = new ArrayList<>(records.subList(0, size));
+      ProductionDailyProcessViewDto last = records.get(size - 1);
+      nextCursor =
+          SeekCursorUtils.encode(
+              direction.name(),
+              String.valueOf(last.getProdDate()),
+              last.getShift(),
+              String.valueOf(last.getId()));
+    }
+    return PageResponseDto.ofCursor(records, nextCursor, total);
   }
 
-  public List<ProductionDailyProcessViewDto> listRecords() {
-    return productionDailyRepository.fetchAllProcesses();
+  /**
+   * 产能汇总：按周期及维度层级在库内分组汇总，并返回各层级小计与总计。
+   *
+   * @param query 筛选条件（日期范围必填）
+   * @param period 汇总周期：DAY / WEEK / MONTH
+   * @param groupBy 逗号分隔的维度：factory / workshop / line / process / series
+   */
+  public List<ProductionDailyStatsDto> stats(
+      ProductionDailyQueryDto query, String period, String groupBy) {
+    if (query.getFrom() == null || query.getTo() == null) {
+      throw new BusinessException("统计日期范围不能为空");
+    }
+    if (query.getFrom().isAfter(query.getTo())) {
+      throw new BusinessException("开始日期不能晚于结束日期");
+    }
+    String normalizedPeriod = StringUtils.upperCase(StringUtils.trimToNull(period));
+    if (normalizedPeriod == null || !STATS_PERIODS.contains(normalizedPeriod)) {
+      throw new BusinessException("统计周期必须为 DAY、WEEK 或 MONTH");
+    }
+    Set<String> requested = new HashSet<>();
+    for (String dimension : StringUtils.split(StringUtils.defaultString(groupBy), ',')) {
+      String normalized = StringUtils.lowerCase(StringUtils.trimToNull(dimension));
+      if (normalized == null) {
+        continue;
+      }
+      if (!STATS_DIMENSIONS.contains(normalized)) {
+        throw new BusinessException("不支持的统计维度: " + dimension.trim());
+      }
+      requested.add(normalized);
+    }
+    List<String> dimensions = new ArrayList<>();
+    for (String dimension : STATS_DIMENSIONS) {
+      if (requested.contains(dimension)) {
+        dimensions.add(dimension);
+      }
+    }
+    return productionDailyRepository.fetchStats(
+        query.getFrom(),
+        query.getTo(),
+        normalizeShiftNullable(query.getShift()),
+        normalizeText(query.getFactoryName()),
+        normalizeText(query.getWorkshopName()),
+        normalizeText(query.getLineName()),
+        normalizedPeriod,
+        dimensions);
+  }
+
+  /**
+   * 由明细全量重建每日产能汇总表（汇总数据与明细不一致或历史数据导入后使用）。
+   *
+   * @return 重建后的汇总行数
+   */
+  @Transactional(rollbackFor = Throwable.class)
+  public int rebuildRollup() {
+    return productionDailyRepository.rebuildRollup();
   }
 
   public void exportSelected(HttpServletResponse response, List<Long> ids) throws IOException {
@@ -137,14 +397,102 @@ public class ProductionDailyService {
     writeExport(response, records);
   }
 
-  private void saveProcess(
+  /** 查找班别表头，不存在时创建（并发创建冲突时回查）。 */
+  private Long resolveHeaderId(
+      LocalDate prodDate, String shift, String factoryName, String workshopName, String lineName) {
+    Long headerId =
+        productionDailyRepository.findHeaderId(
+            prodDate, shift, factoryName, workshopName, lineName);
+    if (headerId == null) {
+      headerId =
+          productionDailyRepository.insertHeader(
+              prodDate, shift, factoryName, workshopName, lineName);
+      if (headerId == null) {
+        headerId =
+            productionDailyRepository.findHeaderId(
+                prodDate, shift, factoryName, workshopName, lineName);
+      }
+    }
+    if (headerId == null) {
+      throw new BusinessException("产能班别创建失败");
+    }
+    return headerId;
+  }
+
+  /** 批量写入明细（单条 MERGE），随后一次性为带 FA 的明细补齐维修记录。 */
+  private void saveProcesses(
       Long headerId,
       LocalDate prodDate,
       String shift,
       String factoryName,
       String workshopName,
       String lineName,
-      ProductionDailyProcessRequest process) {
+      List<ProductionDailyProcessViewDto> processes) {
+    List<ProductionDailyRepository.UpsertedProcess> upserted =
+        productionDailyRepository.upsertProcesses(headerId, processes);
+    List<Long> processIds = new ArrayList<>(processes.size());
+    // 制程段 -> {目标产能, 实际产出, Down机时间, 明细行数} 的增量
+    Map<String, long[]> deltas = new LinkedHashMap<>();
+    for (int i = 0; i < processes.size(); i++) {
+      ProductionDailyRepository.UpsertedProcess result = upserted.get(i);
+      if (result == null || result.id() == null) {
+        throw new BusinessException(
+            processes.get(i).getId() == null ? "产能明细保存失败" : "产能明细不存在");
+      }
+      processIds.add(result.id());
+      ProductionDailyProcessViewDto process = processes.get(i);
+      addRollupDelta(
+          deltas,
+          process.getProcessName(),
+          process.getTargetOutput(),
+          process.getActualOutput(),
+          process.getDownMinutes(),
+          1);
+      if (result.previousProcessName() != null) {
+        addRollupDelta(
+            deltas,
+            result.previousProcessName(),
+            negate(result.previousTargetOutput()),
+            negate(result.previousActualOutput()),
+            negate(result.previousDownMinutes()),
+            -1);
+      }
+    }
+    List<ProductionDailyRepository.RollupDelta> rollupDeltas = new ArrayList<>();
+    for (Map.Entry<String, long[]> entry : deltas.entrySet()) {
+      long[] delta = entry.getValue();
+      if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0 || delta[3] != 0) {
+        rollupDeltas.add(
+            new ProductionDailyRepository.RollupDelta(
+                entry.getKey(), delta[0], delta[1], delta[2], (int) delta[3]));
+      }
+    }
+    if (!rollupDeltas.isEmpty()) {
+      productionDailyRepository.applyRollupDeltas(
+          prodDate, shift, factoryName, workshopName, lineName, rollupDeltas);
+    }
+    repairRecordSyncService.syncFromProcesses(processIds);
+  }
+
+  private void addRollupDelta(
+      Map<String, long[]> deltas,
+      String processName,
+      Integer targetOutput,
+      Integer actualOutput,
+      Integer downMinutes,
+      int rowCount) {
+    long[] delta = deltas.computeIfAbsent(processName, key -> new long[4]);
+    delta[0] += targetOutput == null ? 0 : targetOutput;
+    delta[1] += actualOutput == null ? 0 : actualOutput;
+    delta[2] += downMinutes == null ? 0 : downMinutes;
+    delta[3] += rowCount;
+  }
+
+  private Integer negate(Integer value) {
+    return value == null ? null : -value;
+  }
+
+  private ProductionDailyProcessViewDto normalizeProcess(ProductionDailyProcessRequest process) {
     String machineNo = normalizeRequiredText(process.getMachineNo(), "机台号不能为空");
     String processName = normalizeRequiredText(process.getProcessName(), "制程段不能为空");
     String productCode = normalizeRequiredText(process.getProductCode(), "生产料号不能为空");
@@ -164,90 +512,23 @@ public class ProductionDailyService {
     validateNonNegative(actualOutput, "实际产出不能为负数");
     validateNonNegative(downMinutes, "理论Down机时间不能为负数");
 
-    Integer gap = calculateGap(targetOutput, actualOutput);
-    BigDecimal achievementRate = calculateAchievementRate(targetOutput, actualOutput);
-    String fa = normalizeText(process.getFa());
-    String ca = normalizeText(process.getCa());
-
-    Long processId = process.getId();
-    if (processId == null) {
-      processId =
-          productionDailyRepository.insertProcess(
-              headerId,
-              machineNo,
-              processName,
-              productCode,
-              seriesName,
-              ct,
-              equipmentCount,
-              runMinutes,
-              targetOutput,
-              actualOutput,
-              gap,
-              achievementRate,
-              downMinutes,
-              fa,
-              ca);
-    } else {
-      int updated =
-          productionDailyRepository.updateProcess(
-              processId,
-              headerId,
-              machineNo,
-              processName,
-              productCode,
-              seriesName,
-              ct,
-              equipmentCount,
-              runMinutes,
-              targetOutput,
-              actualOutput,
-              gap,
-              achievementRate,
-              downMinutes,
-              fa,
-              ca);
-      if (updated <= 0) {
-        throw new BusinessException("产能明细不存在");
-      }
-    }
-    if (processId == null) {
-      throw new BusinessException("产能明细保存失败");
-    }
-    syncRepairRecord(processId, fa);
-  }
-
-  private void syncRepairRecord(Long processId, String fa) {
-    if (fa == null) {
-      return;
-    }
-    Long existingId = repairRecordRepository.fetchIdBySourceProcessId(processId);
-    if (existingId != null) {
-      return;
-    }
-    ProductionDailyProcessViewDto snapshot =
-        productionDailyRepository.fetchProcessSnapshot(processId);
-    if (snapshot == null) {
-      throw new BusinessException("产能明细不存在");
-    }
-    repairRecordRepository.insertRecord(
-        snapshot.getProdDate().atStartOfDay(),
-        snapshot.getShift(),
-        snapshot.getFactoryName(),
-        snapshot.getWorkshopName(),
-        snapshot.getLineName(),
-        snapshot.getMachineNo(),
-        null,
-        null,
-        null,
-        null,
-        snapshot.getFa(),
-        null,
-        false,
-        null,
-        null,
-        snapshot.getDownMinutes(),
-        processId);
+    ProductionDailyProcessViewDto normalized = new ProductionDailyProcessViewDto();
+    normalized.setId(process.getId());
+    normalized.setMachineNo(machineNo);
+    normalized.setProcessName(processName);
+    normalized.setProductCode(productCode);
+    normalized.setSeriesName(seriesName);
+    normalized.setCt(ct);
+    normalized.setEquipmentCount(equipmentCount);
+    normalized.setRunMinutes(runMinutes);
+    normalized.setTargetOutput(targetOutput);
+    normalized.setActualOutput(actualOutput);
+    normalized.setGap(calculateGap(targetOutput, actualOutput));
+    normalized.setAchievementRate(calculateAchievementRate(targetOutput, actualOutput));
+    normalized.setDownMinutes(downMinutes);
+    normalized.setFa(normalizeText(process.getFa()));
+    normalized.setCa(normalizeText(process.getCa()));
+    return normalized;
   }
 
   private ProductionDailyExportDto convertToExportDto(ProductionDailyProcessViewDto dto) {
@@ -281,51 +562,160 @@ public class ProductionDailyService {
 
   private void writeExport(HttpServletResponse response, List<ProductionDailyProcessViewDto> records)
       throws IOException {
-    List<ProductionDailyExportDto> exportData = buildExportData(records);
+    ExportData exportData = buildExportData(records);
+    prepareExportResponse(response);
+    exportWriterBuilder(response.getOutputStream(), exportData.layout())
+        .sheet(EXPORT_SHEET_NAME)
+        .doWrite(exportData.rows());
+  }
+
+  private void prepareExportResponse(HttpServletResponse response) {
     response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
     response.setCharacterEncoding("utf-8");
     String fileName =
         URLEncoder.encode("每日产能_" + LocalDateTime.now(), StandardCharsets.UTF_8)
             .replaceAll("\\+", "%20");
     response.setHeader("Content-disposition", "attachment;filename*=utf-8''" + fileName + ".xlsx");
-    EasyExcel.write(response.getOutputStream(), ProductionDailyExportDto.class)
-        .registerWriteHandler(
-            new GroupColMergeStrategy(
-                1, new int[] {0, 1, 2, 3}, new int[] {0, 1, 2, 3}, 5, "合计"))
-        .registerWriteHandler(new SummaryRowMergeStrategy(1, 5, "合计", 0, 11))
-        .registerWriteHandler(
-            new GroupColMergeStrategy(1, new int[] {4}, new int[] {0, 1, 2, 3, 4}))
-        .registerWriteHandler(new ColumnCenterStyleStrategy(0, 1, 2, 3, 4))
-        .registerWriteHandler(
-            new ColumnFillStyleStrategy(IndexedColors.YELLOW.getIndex(), 13))
-        .registerWriteHandler(
-            new SummaryRowFillStyleStrategy(1, 5, "合计", 0, 18, IndexedColors.GREEN.getIndex()))
-        .registerWriteHandler(new CompactColumnWidthStyleStrategy(0))
-        .sheet("每日产能")
-        .doWrite(exportData);
-  }
-
-  private List<ProductionDailyExportDto> buildExportData(
-      List<ProductionDailyProcessViewDto> records) {
+  }
+
+  /** 构建导出写入器并注册版式处理器（包内可见，供基准测试复用）。 */
+  ExcelWriterBuilder exportWriterBuilder(OutputStream outputStream, ExportLayout layout) {
+    return EasyExcel.write(outputStream, ProductionDailyExportDto.class)
+        .registerWriteHandler(new ExportLayoutWriteHandler(layout));
+  }
+
+  /** 导出版式：日期~班别居中，实际产出黄底，合计行整行绿底。 */
+  private ExportLayout newExportLayout() {
+    return new ExportLayout(
+        EXPORT_HEAD_ROWS,
+        new int[] {0, 1, 2, 3, 4},
+        new int[] {13},
+        IndexedColors.YELLOW.getIndex(),
+        0,
+        18,
+        IndexedColors.GREEN.getIndex(),
+        0);
+  }
+
+  /** 导出行与对应版式。 */
+  record ExportData(List<ProductionDailyExportDto> rows, ExportLayout layout) {}
+
+  /** 生成导出行（明细 + 分组合计）及版式（包内可见，供基准测试复用）。 */
+  ExportData buildExportData(List<ProductionDailyProcessViewDto> records) {
     List<ProductionDailyExportDto> result = new ArrayList<>();
+    ExportLayout layout = newExportLayout();
     if (records == null || records.isEmpty()) {
-      return result;
+      return new ExportData(result, layout);
     }
-    String currentGroupKey = null;
-    List<SummaryBucket> buckets = new ArrayList<>();
+    ExportRowCollector collector = new ExportRowCollector(result, layout);
     for (ProductionDailyProcessViewDto record : records) {
+      collector.add(record);
+    }
+    collector.finish();
+    return new ExportData(result, layout);
+  }
+
+  /**
+   * 导出行收集器：按输入顺序输出明细行，并在分组（日期/厂区/车间/线别）切换时追加制程段合计行。
+   *
+   * <p>输入需已按分组排序；输出写入 sink，调用方可随时取走 sink 中的行分块写出。同时在 layout 中记录
+   * 合并区域（分组明细的日期~线别纵向合并、同班别纵向合并、合计行横向合并）、合计行与列宽。
+   */
+  private final class ExportRowCollector {
+    private final List<ProductionDailyExportDto> sink;
+    private final ExportLayout layout;
+    private final List<SummaryBucket> buckets = new ArrayList<>();
+    private String currentGroupKey;
+    private int groupFirstRow = -1;
+    private int groupLastRow = -1;
+    private int shiftFirstRow = -1;
+    private int shiftLastRow = -1;
+    private String shiftValue;
+
+    private ExportRowCollector(List<ProductionDailyExportDto> sink, ExportLayout layout) {
+      this.sink = sink;
+      this.layout = layout;
+    }
+
+    private void add(ProductionDailyProcessViewDto record) {
       String groupKey = buildGroupKey(record);
       if (currentGroupKey != null && !currentGroupKey.equals(groupKey)) {
-        appendGroupSummaries(result, buckets);
-        buckets.clear();
+        closeGroup();
       }
       currentGroupKey = groupKey;
-      result.add(convertToExportDto(record));
+      ProductionDailyExportDto export = convertToExportDto(record);
+      int row = emit(export);
+      if (groupFirstRow < 0) {
+        groupFirstRow = row;
+      }
+      groupLastRow = row;
+      if (shiftFirstRow >= 0 && Objects.equals(shiftValue, export.getShift())) {
+        shiftLastRow = row;
+      } else {
+        closeShiftRun();
+        shiftFirstRow = row;
+        shiftLastRow = row;
+        shiftValue = export.getShift();
+      }
       SummaryBucket bucket = findOrCreateBucket(buckets, record);
       bucket.add(record);
     }
-    appendGroupSummaries(result, buckets);
-    return result;
+
+    private void finish() {
+      closeGroup();
+      currentGroupKey = null;
+    }
+
+    private void closeGroup() {
+      if (groupFirstRow >= 0) {
+        for (int col = 0; col <= EXPORT_GROUP_LAST_COL; col++) {
+          layout.addMergedRegion(groupFirstRow, groupLastRow, col, col);
+        }
+      }
+      closeShiftRun();
+      groupFirstRow = -1;
+      groupLastRow = -1;
+      for (SummaryBucket bucket : buckets) {
+        int row = emit(toSummaryRow(bucket));
+        layout.markSummaryRow(row);
+        layout.addMergedRegion(row, row, 0, EXPORT_SUMMARY_MERGE_LAST_COL);
+      }
+      buckets.clear();
+    }
+
+    private void closeShiftRun() {
+      if (shiftFirstRow >= 0) {
+        layout.addMergedRegion(shiftFirstRow, shiftLastRow, EXPORT_SHIFT_COL, EXPORT_SHIFT_COL);
+      }
+      shiftFirstRow = -1;
+      shiftLastRow = -1;
+      shiftValue = null;
+    }
+
+    private int emit(ProductionDailyExportDto export) {
+      int row = layout.nextRow();
+      layout.measure(0, export.getProdDate());
+      layout.measure(1, export.getFactoryName());
+      layout.measure(2, export.getWorkshopName());
+      layout.measure(3, export.getLineName());
+      layout.measure(4, export.getShift());
+      layout.measure(5, export.getProcessName());
+      layout.measure(6, export.getMachineNo());
+      layout.measure(7, export.getProductCode());
+      layout.measure(8, export.getSeriesName());
+      layout.measure(9, export.getCt());
+      layout.measure(10, export.getEquipmentCount());
+      layout.measure(11, export.getRunMinutes());
+      layout.measure(12, export.getTargetOutput());
+      layout.measure(13, export.getActualOutput());
+      layout.measure(14, export.getGap());
+      layout.measure(15, export.getAchievementRate());
+      layout.measure(16, export.getDownMinutes());
+      layout.measure(17, export.getFa());
+      layout.measure(18, export.getCa());
+      sink.add(export);
+      return row;
+    }
   }
 
   private String buildSummaryKey(ProductionDailyProcessViewDto record) {
@@ -363,12 +753,6 @@ public class ProductionDailyService {
     return bucket;
   }
 
-  private void appendGroupSummaries(List<ProductionDailyExportDto> result, List<SummaryBucket> buckets) {
-    for (SummaryBucket bucket : buckets) {
-      result.add(toSummaryRow(bucket));
-    }
-  }
-
   private ProductionDailyExportDto toSummaryRow(SummaryBucket bucket) {
     ProductionDailyExportDto summary = new ProductionDailyExportDto();
     String label = bucket.processName + "合计";
@@ -488,6 +872,12 @@ public class ProductionDailyService {
     return StringUtils.trimToNull(value);
   }
 
+  private void requireValue(Object value, String message) {
+    if (value == null) {
+      throw new BusinessException(message);
+    }
+  }
+
   private void validateNonNegative(Integer value, String message) {
     if (value == null) {
       return;
@@ -0,0 +1,52 @@
+package org.jdk.project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Function;
+import org.jdk.project.dto.repair.RepairAnalyticsDto;
+import org.jdk.project.utils.LocalCacheUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 维修分析结果缓存。
+ *
+ * <p>- 按筛选条件缓存分析结果，看板刷新与多人同时查看时不重复统计； - 过期时间短，维修记录增删改后整体失效。
+ */
+@Component
+public class RepairAnalyticsCache {
+
+  private static final String CACHE_NAME = "repairAnalytics";
+
+  private final Cache<String, RepairAnalyticsDto> cache;
+
+  /**
+   * 通过配置构造缓存。
+   *
+   * @param ttlSeconds 过期时间，单位：秒
+   * @param maxSize 最大缓存条数
+   * @param meterRegistry 指标注册表
+   */
+  public RepairAnalyticsCache(
+      @Value("${repair.analytics-cache.ttl-seconds:60}") long ttlSeconds,
+      @Value("${repair.analytics-cache.max-size:200}") long maxSize,
+      MeterRegistry meterRegistry) {
+    this.cache = LocalCacheUtils.newMonitoredCache(CACHE_NAME, ttlSeconds, maxSize, meterRegistry);
+  }
+
+  /**
+   * 读取缓存，未命中时通过 loader 加载并写入。
+   *
+   * @param key 筛选条件键
+   * @param loader 加载函数（异常直接抛出，不缓存）
+   * @return 分析结果
+   */
+  public RepairAnalyticsDto get(String key, Function<String, RepairAnalyticsDto> loader) {
+    return cache.get(key, loader);
+  }
+
+  /** 清空全部缓存，处于事务中时在提交后执行。 */
+  public void evictAll() {
+    LocalCacheUtils.invalidateAfterCommit(cache::invalidateAll);
+  }
+}
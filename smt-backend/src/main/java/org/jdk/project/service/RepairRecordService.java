@@ -3,23 +3,30 @@ package org.jdk.project.service;
 import static org.jdk.project.utils.StringCaseUtils.convertCamelCaseToSnake;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.jdk.project.config.metrics.ExportMetrics;
 import org.jdk.project.dto.PageRequestDto;
 import org.jdk.project.dto.PageResponseDto;
+import org.jdk.project.dto.repair.RepairAnalyticsDto;
 import org.jdk.project.dto.repair.RepairRecordExportDto;
 import org.jdk.project.dto.repair.RepairRecordQueryDto;
 import org.jdk.project.dto.repair.RepairRecordRequest;
 import org.jdk.project.dto.repair.RepairRecordViewDto;
 import org.jdk.project.exception.BusinessException;
 import org.jdk.project.repository.ProductionDailyRepository;
+import org.jdk.project.repository.RepairAnalyticsRepository;
 import org.jdk.project.repository.RepairRecordRepository;
+import org.jdk.project.utils.SeekCursorUtils;
 import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.SortField;
@@ -39,30 +46,57 @@ public class RepairRecordService {
   private static final RepairRecordPerson REPAIR_RECORD_PERSON =
       RepairRecordPerson.REPAIR_RECORD_PERSON;
 
+  private static final String SEEK_SORT_OCCUR_AT = "occurAt";
+  private static final String SEEK_SORT_ID = "id";
+  private static final String EXPORT_SHEET_NAME = "维修记录";
+  private static final String EXPORT_METRIC_NAME = "repairRecord";
+  private static final int EXPORT_CHUNK_SIZE = 1000;
+
+  private static final int ANALYTICS_MAX_TOP = 50;
+
+  private static final List<SortField<?>> DEFAULT_SORT = List.of(REPAIR_RECORD.ID.desc());
+  // 列名 -> 各方向的排序字段，启动时构建一次，请求时直接查表
+  private static final Map<String, Map<PageRequestDto.Direction, SortField<?>>> SORT_FIELDS =
+      sortFieldIndex();
+
   private final RepairRecordRepository repairRecordRepository;
   private final ProductionDailyRepository productionDailyRepository;
+  private final RepairAnalyticsRepository repairAnalyticsRepository;
+  private final RepairAnalyticsCache repairAnalyticsCache;
+  private final ExportMetrics exportMetrics;
 
   public void export(HttpServletResponse response, RepairRecordQueryDto query) throws IOException {
-    Condition condition = buildCondition(query);
-    // Fetch all records without pagination
-    List<RepairRecordViewDto> records =
-        repairRecordRepository.fetchRecords(
-            condition, List.of(REPAIR_RECORD.OCCUR_AT.desc()), null, null);
-    attachRepairPeople(records);
-
-    List<RepairRecordExportDto> exportData =
-        records.stream().map(this::convertToExportDto).toList();
-
     response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
     response.setCharacterEncoding("utf-8");
     String fileName =
         URLEncoder.encode("维修记录_" + LocalDateTime.now().toString(), StandardCharsets.UTF_8)
             .replaceAll("\\+", "%20");
     response.setHeader("Content-disposition", "attachment;filename*=utf-8''" + fileName + ".xlsx");
+    export(response.getOutputStream(), query);
+  }
 
-    EasyExcel.write(response.getOutputStream(), RepairRecordExportDto.class)
-        .sheet("维修记录")
-        .doWrite(exportData);
+  /** 按条件导出到输出流（同步下载与异步导出任务共用）。 */
+  public void export(OutputStream outputStream, RepairRecordQueryDto query) {
+    Condition condition = buildCondition(query);
+    // 游标分块读取，每块补齐维修人员后立即写出，内存占用与导出范围无关
+    ExportMetrics.ExportTimer timer = exportMetrics.start(EXPORT_METRIC_NAME);
+    try (ExcelWriter excelWriter =
+        EasyExcel.write(outputStream, RepairRecordExportDto.class).build()) {
+      WriteSheet writeSheet = EasyExcel.writerSheet(EXPORT_SHEET_NAME).build();
+      // 先写表头，无数据时也输出带表头的空表
+      timer.write(() -> excelWriter.write(List.of(), writeSheet));
+      repairRecordRepository.streamRecords(
+          condition,
+          List.of(REPAIR_RECORD.OCCUR_AT.desc(), REPAIR_RECORD.ID.desc()),
+          EXPORT_CHUNK_SIZE,
+          chunk -> {
+            attachRepairPeople(chunk);
+            List<RepairRecordExportDto> rows =
+                chunk.stream().map(this::convertToExportDto).toList();
+            timer.write(() -> excelWriter.write(rows, writeSheet));
+          });
+      timer.finish(excelWriter::finish);
+    }
   }
 
   private RepairRecordExportDto convertToExportDto(RepairRecordViewDto dto) {
@@ -87,15 +121,105 @@ public class RepairRecordService {
     return export;
   }
 
+  /**
+   * 页码分页查询：分页数据与总数由同一条语句返回。
+   *
+   * @param includeTotal 是否统计总数，滚动加载等不需要总数的场景传 false，仅返回 hasMore
+   */
   public PageResponseDto<List<RepairRecordViewDto>> list(
-      RepairRecordQueryDto query, PageRequestDto pageRequest) {
+      RepairRecordQueryDto query, PageRequestDto pageRequest, boolean includeTotal) {
     Condition condition = buildCondition(query);
-    long total = repairRecordRepository.count(condition);
-    if (total == 0) {
-      return new PageResponseDto<>(0, List.of());
+    RepairRecordRepository.RecordPage page =
+        repairRecordRepository.fetchRecordPage(
+            condition,
+            buildSortFields(pageRequest),
+            Math.toIntExact(pageRequest.getSize()),
+            Math.toIntExact(pageRequest.getOffset()),
+            includeTotal);
+    attachRepairPeople(page.records());
+    PageResponseDto<List<RepairRecordViewDto>> response;
+    if (includeTotal) {
+      response = new PageResponseDto<>(page.total(), page.records());
+    } else {
+      response = PageResponseDto.withoutTotal(page.records());
     }
-    List<RepairRecordViewDto> records = fetchRecords(condition, pageRequest);
-    return new PageResponseDto<>(total, records);
+    response.setHasMore(page.hasMore());
+    return response;
+  }
+
+  /**
+   * 游标分页（keyset）查询：按排序键与 id 定位下一页，深分页耗时恒定。
+   *
+   * <p>仅支持按 occurAt 或 id 排序（均为非空列），总数仅在 withTotal 为 true 时统计。
+   */
+  public PageResponseDto<List<RepairRecordViewDto>> listByCursor(
+      RepairRecordQueryDto query, PageRequestDto pageRequest, String cursor, boolean withTotal) {
+    Condition condition = buildCondition(query);
+    String sortKey = SEEK_SORT_ID;
+    PageRequestDto.Direction direction = PageRequestDto.Direction.DESC;
+    Map<String, PageRequestDto.Direction> sortBy = pageRequest.getSortBy();
+    if (sortBy != null && !sortBy.isEmpty()) {
+      if (sortBy.size() > 1) {
+        throw new BusinessException("游标分页仅支持单个排序字段");
+      }
+      var entry = sortBy.entrySet().iterator().next();
+      sortKey = entry.getKey();
+      direction = entry.getValue();
+      if (!SEEK_SORT_OCCUR_AT.equals(sortKey) && !SEEK_SORT_ID.equals(sortKey)) {
+        throw new BusinessException("游标分页仅支持按 occurAt 或 id 排序");
+      }
+    }
+    SortOrder order = SortOrder.valueOf(direction.getKeyword());
+    List<SortField<?>> orderBy =
+        SEEK_SORT_OCCUR_AT.equals(sortKey)
+            ? List.of(REPAIR_RECORD.OCCUR_AT.sort(order), REPAIR_RECORD.ID.sort(order))
+            : List.of(REPAIR_RECORD.ID.sort(order));
+    Condition pageCondition = condition;
+    if (StringUtils.isNotEmpty(cursor)) {
+      pageCondition = condition.and(buildSeekCondition(cursor, sortKey, direction));
+    }
+    int size = Math.toIntExact(pageRequest.getSize());
+    List<RepairRecordViewDto> records =
+        repairRecordRepository.fetchRecords(pageCondition, orderBy, size + 1, 0);
+    String nextCursor = null;
+    if (records.size() > size) {
+      records = new ArrayList<>(records.subList(0, size));
+      RepairRecordViewDto last = records.get(size - 1);
+      nextCursor =
+          SeekCursorUtils.encode(
+              sortKey,
+              direction.name(),
+              SEEK_SORT_OCCUR_AT.equals(sortKey) ? String.valueOf(last.getOccurAt()) : "",
+              String.valueOf(last.getId()));
+    }
+    attachRepairPeople(records);
+    Long total = withTotal ? repairRecordRepository.count(condition) : null;
+    return PageResponseDto.ofCursor(records, nextCursor, total);
+  }
+
+  /**
+   * 维修分析：MTTR、机台 MTBF、Down 机时间帕累托与未修复账龄，结果按筛选条件短时缓存。
+   *
+   * @param query 筛选条件（与列表一致）
+   * @param top 返回故障次数最多的机台数
+   */
+  public RepairAnalyticsDto analytics(RepairRecordQueryDto query, int top) {
+    if (top < 1 || top > ANALYTICS_MAX_TOP) {
+      throw new BusinessException("机台排行数量必须在 1-" + ANALYTICS_MAX_TOP + " 之间");
+    }
+    RepairRecordQueryDto normalized = query == null ? new RepairRecordQueryDto() : query;
+    String key = normalized + "|" + top;
+    return repairAnalyticsCache.get(
+        key,
+        ignored -> {
+          Condition condition = buildCondition(normalized);
+          RepairAnalyticsDto analytics = repairAnalyticsRepository.fetchSummary(condition);
+          analytics.setTopMachines(repairAnalyticsRepository.fetchTopMachines(condition, top));
+          analytics.setDowntimePareto(repairAnalyticsRepository.fetchDowntimePareto(condition));
+          analytics.setOpenAging(
+              repairAnalyticsRepository.fetchOpenAging(condition, LocalDateTime.now()));
+          return analytics;
+        });
   }
 
   public RepairRecordViewDto get(Long id) {
@@ -146,6 +270,7 @@ public class RepairRecordService {
       throw new BusinessException("维修记录创建失败");
     }
     repairRecordRepository.insertRepairPeople(recordId, repairPersonNames);
+    repairAnalyticsCache.evictAll();
     return recordId;
   }
 
@@ -190,6 +315,7 @@ public class RepairRecordService {
     }
     repairRecordRepository.deleteRepairPeopleByRecordId(id);
     repairRecordRepository.insertRepairPeople(id, repairPersonNames);
+    repairAnalyticsCache.evictAll();
     if (solution != null) {
       Long sourceProcessId = repairRecordRepository.fetchSourceProcessId(id);
       if (sourceProcessId != null) {
@@ -205,6 +331,7 @@ public class RepairRecordService {
     if (deleted <= 0) {
       throw new BusinessException("维修记录不存在");
     }
+    repairAnalyticsCache.evictAll();
   }
 
   private List<RepairRecordViewDto> fetchRecords(Condition condition, PageRequestDto pageRequest) {
@@ -309,28 +436,66 @@ public class RepairRecordService {
     return condition;
   }
 
+  private Condition buildSeekCondition(
+      String cursor, String sortKey, PageRequestDto.Direction direction) {
+    List<String> parts = SeekCursorUtils.decode(cursor, 4);
+    if (!sortKey.equals(parts.get(0)) || !direction.name().equals(parts.get(1))) {
+      throw new BusinessException("分页游标与排序条件不一致");
+    }
+    boolean ascending = direction == PageRequestDto.Direction.ASC;
+    Long lastId;
+    LocalDateTime lastOccurAt = null;
+    try {
+      lastId = Long.valueOf(parts.get(3));
+      if (SEEK_SORT_OCCUR_AT.equals(sortKey)) {
+        lastOccurAt = LocalDateTime.parse(parts.get(2));
+      }
+    } catch (RuntimeException ex) {
+      throw new BusinessException("分页游标无效", ex);
+    }
+    // 开源版 jOOQ 无 SQL Server 方言，seek() 的行值比较无法渲染，这里手工展开 keyset 谓词
+    Condition idCondition = ascending ? REPAIR_RECORD.ID.gt(lastId) : REPAIR_RECORD.ID.lt(lastId);
+    if (lastOccurAt == null) {
+      return idCondition;
+    }
+    Condition occurCondition =
+        ascending ? REPAIR_RECORD.OCCUR_AT.gt(lastOccurAt) : REPAIR_RECORD.OCCUR_AT.lt(lastOccurAt);
+    return occurCondition.or(REPAIR_RECORD.OCCUR_AT.eq(lastOccurAt).and(idCondition));
+  }
+
   private List<SortField<?>> buildSortFields(PageRequestDto pageRequest) {
     if (pageRequest == null
         || pageRequest.getSortBy() == null
         || pageRequest.getSortBy().isEmpty()) {
-      return List.of(REPAIR_RECORD.ID.desc());
+      return DEFAULT_SORT;
     }
     List<SortField<?>> sortFields = new ArrayList<>();
     for (var entry : pageRequest.getSortBy().entrySet()) {
-      String fieldName = convertCamelCaseToSnake(entry.getKey());
-      Field<Object> field = REPAIR_RECORD.field(fieldName, Object.class);
-      if (field == null) {
+      Map<PageRequestDto.Direction, SortField<?>> fields =
+          SORT_FIELDS.get(convertCamelCaseToSnake(entry.getKey()));
+      if (fields == null) {
         continue;
       }
-      SortOrder order = SortOrder.valueOf(entry.getValue().getKeyword());
-      sortFields.add(field.sort(order));
+      sortFields.add(fields.get(entry.getValue()));
     }
     if (sortFields.isEmpty()) {
-      return List.of(REPAIR_RECORD.ID.desc());
+      return DEFAULT_SORT;
     }
     return sortFields;
   }
 
+  private static Map<String, Map<PageRequestDto.Direction, SortField<?>>> sortFieldIndex() {
+    Map<String, Map<PageRequestDto.Direction, SortField<?>>> index = new HashMap<>();
+    for (Field<?> field : REPAIR_RECORD.fields()) {
+      Map<PageRequestDto.Direction, SortField<?>> fields =
+          new EnumMap<>(PageRequestDto.Direction.class);
+      fields.put(PageRequestDto.Direction.ASC, field.asc());
+      fields.put(PageRequestDto.Direction.DESC, field.desc());
+      index.put(field.getName(), fields);
+    }
+    return index;
+  }
+
   private String normalizeShift(String shift) {
     String value = StringUtils.upperCase(StringUtils.trimToNull(shift));
     if (value == null) {
@@ -0,0 +1,37 @@
+package org.jdk.project.service;
+
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jdk.project.repository.RepairRecordRepository;
+import org.springframework.stereotype.Service;
+
+/** 维修记录同步服务：为生产日报中带 FA 的制程段批量生成维修记录。 */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RepairRecordSyncService {
+
+  private final RepairRecordRepository repairRecordRepository;
+  private final RepairAnalyticsCache repairAnalyticsCache;
+
+  /**
+   * 同步一次保存涉及的全部制程段。
+   *
+   * <p>一条 INSERT ... SELECT 以反连接跳过已有维修记录的制程段；语句数量与制程段数量无关。需在调用方事务中执行。
+   *
+   * @param processIds 本次保存的制程段ID
+   * @return 新生成的维修记录条数
+   */
+  public int syncFromProcesses(Collection<Long> processIds) {
+    if (processIds == null || processIds.isEmpty()) {
+      return 0;
+    }
+    int inserted = repairRecordRepository.insertRecordsForProcesses(processIds);
+    if (inserted > 0) {
+      repairAnalyticsCache.evictAll();
+    }
+    log.debug("repair records created for {} of {} processes", inserted, processIds.size());
+    return inserted;
+  }
+}
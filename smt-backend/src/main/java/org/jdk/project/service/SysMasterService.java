@@ -1,7 +1,9 @@
 package org.jdk.project.service;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.jdk.project.dto.sys.*;
 import org.jdk.project.exception.BusinessException;
@@ -9,44 +11,70 @@ import org.jdk.project.repository.SysMasterRepository;
 import org.jooq.generated.tables.pojos.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-/** 系统维护表服务。 */
+/** 系统维护表服务（下拉列表读取内存快照，写操作提交后重建快照）。 */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SysMasterService {
 
+  /** 快照版本前缀：区分不同进程实例，避免重启后 ETag 与旧缓存冲突。 */
+  private static final String SNAPSHOT_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
   private final SysMasterRepository sysMasterRepository;
 
+  private final AtomicLong snapshotSequence = new AtomicLong();
+
+  private final Object snapshotLock = new Object();
+
+  private volatile SysMasterSnapshot snapshot;
+
+  /** 获取当前维护表快照，首次访问时加载。 */
+  public SysMasterSnapshot currentSnapshot() {
+    SysMasterSnapshot current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (snapshotLock) {
+      if (snapshot == null) {
+        snapshot = loadSnapshot();
+      }
+      return snapshot;
+    }
+  }
+
   public List<SysFactory> listFactories() {
-    return sysMasterRepository.listFactories();
+    return currentSnapshot().getFactories();
   }
 
   public List<SysWorkshop> listWorkshops(Long factoryId) {
-    return sysMasterRepository.listWorkshops(factoryId);
+    return currentSnapshot().listWorkshops(factoryId);
   }
 
   public List<SysLine> listLines(Long workshopId) {
-    return sysMasterRepository.listLines(workshopId);
+    return currentSnapshot().listLines(workshopId);
   }
 
   public List<SysMachine> listMachines(Long lineId) {
-    return sysMasterRepository.listMachines(lineId);
+    return currentSnapshot().listMachines(lineId);
   }
 
   public List<SysAbnormalCategory> listAbnormalCategories() {
-    return sysMasterRepository.listAbnormalCategories();
+    return currentSnapshot().getAbnormalCategories();
   }
 
   public List<SysAbnormalType> listAbnormalTypes(Long abnormalCategoryId) {
-    return sysMasterRepository.listAbnormalTypes(abnormalCategoryId);
+    return currentSnapshot().listAbnormalTypes(abnormalCategoryId);
   }
 
   public List<SysTeam> listTeams() {
-    return sysMasterRepository.listTeams();
+    return currentSnapshot().getTeams();
   }
 
   public List<SysPerson> listPeople(Long teamId) {
-    return sysMasterRepository.listPeople(teamId);
+    return currentSnapshot().listPeople(teamId);
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -60,6 +88,7 @@ public class SysMasterService {
     if (id == null) {
       throw new BusinessException("厂区创建失败");
     }
+    refreshSnapshotAfterCommit();
     return id;
   }
 
@@ -73,6 +102,7 @@ public class SysMasterService {
             defaultSortOrder(request.getSortOrder()),
             normalizeText(request.getRemark()));
     assertUpdated(updated, "厂区");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -81,6 +111,7 @@ public class SysMasterService {
       throw new BusinessException("厂区下存在车间，无法删除");
     }
     assertUpdated(sysMasterRepository.deleteFactory(id), "厂区");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -95,6 +126,7 @@ public class SysMasterService {
     if (id == null) {
       throw new BusinessException("车间创建失败");
     }
+    refreshSnapshotAfterCommit();
     return id;
   }
 
@@ -109,6 +141,7 @@ public class SysMasterService {
             defaultSortOrder(request.getSortOrder()),
             normalizeText(request.getRemark()));
     assertUpdated(updated, "车间");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -117,6 +150,7 @@ public class SysMasterService {
       throw new BusinessException("车间下存在线别，无法删除");
     }
     assertUpdated(sysMasterRepository.deleteWorkshop(id), "车间");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -131,6 +165,7 @@ public class SysMasterService {
     if (id == null) {
       throw new BusinessException("线别创建失败");
     }
+    refreshSnapshotAfterCommit();
     return id;
   }
 
@@ -145,6 +180,7 @@ public class SysMasterService {
             defaultSortOrder(request.getSortOrder()),
             normalizeText(request.getRemark()));
     assertUpdated(updated, "线别");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -153,6 +189,7 @@ public class SysMasterService {
       throw new BusinessException("线别下存在机台，无法删除");
     }
     assertUpdated(sysMasterRepository.deleteLine(id), "线别");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -166,6 +203,7 @@ public class SysMasterService {
     if (id == null) {
       throw new BusinessException("机台创建失败");
     }
+    refreshSnapshotAfterCommit();
     return id;
   }
 
@@ -179,11 +217,13 @@ public class SysMasterService {
             defaultSortOrder(request.getSortOrder()),
             normalizeText(request.getRemark()));
     assertUpdated(updated, "机台");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
   public void deleteMachine(Long id) {
     assertUpdated(sysMasterRepository.deleteMachine(id), "机台");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -197,6 +237,7 @@ public class SysMasterService {
     if (id == null) {
       throw new BusinessException("异常类别创建失败");
     }
+    refreshSnapshotAfterCommit();
     return id;
   }
 
@@ -210,6 +251,7 @@ public class SysMasterService {
             defaultSortOrder(request.getSortOrder()),
             normalizeText(request.getRemark()));
     assertUpdated(updated, "异常类别");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -218,6 +260,7 @@ public class SysMasterService {
       throw new BusinessException("异常类别下存在异常分类，无法删除");
     }
     assertUpdated(sysMasterRepository.deleteAbnormalCategory(id), "异常类别");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -232,6 +275,7 @@ public class SysMasterService {
     if (id == null) {
       throw new BusinessException("异常分类创建失败");
     }
+    refreshSnapshotAfterCommit();
     return id;
   }
 
@@ -246,11 +290,13 @@ public class SysMasterService {
             defaultSortOrder(request.getSortOrder()),
             normalizeText(request.getRemark()));
     assertUpdated(updated, "异常分类");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
   public void deleteAbnormalType(Long id) {
     assertUpdated(sysMasterRepository.deleteAbnormalType(id), "异常分类");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -264,6 +310,7 @@ public class SysMasterService {
     if (id == null) {
       throw new BusinessException("组别创建失败");
     }
+    refreshSnapshotAfterCommit();
     return id;
   }
 
@@ -277,6 +324,7 @@ public class SysMasterService {
             defaultSortOrder(request.getSortOrder()),
             normalizeText(request.getRemark()));
     assertUpdated(updated, "组别");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -285,6 +333,7 @@ public class SysMasterService {
       throw new BusinessException("组别下存在人员，无法删除");
     }
     assertUpdated(sysMasterRepository.deleteTeam(id), "组别");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -298,6 +347,7 @@ public class SysMasterService {
     if (id == null) {
       throw new BusinessException("人员创建失败");
     }
+    refreshSnapshotAfterCommit();
     return id;
   }
 
@@ -311,11 +361,53 @@ public class SysMasterService {
             normalizeText(request.getEmployeeNo()),
             normalizeText(request.getRemark()));
     assertUpdated(updated, "人员");
+    refreshSnapshotAfterCommit();
   }
 
   @Transactional(rollbackFor = Throwable.class)
   public void deletePerson(Long id) {
     assertUpdated(sysMasterRepository.deletePerson(id), "人员");
+    refreshSnapshotAfterCommit();
+  }
+
+  /** 写操作提交后重建快照；无事务时立即重建。 */
+  private void refreshSnapshotAfterCommit() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              refreshSnapshot();
+            }
+          });
+      return;
+    }
+    refreshSnapshot();
+  }
+
+  private void refreshSnapshot() {
+    synchronized (snapshotLock) {
+      try {
+        snapshot = loadSnapshot();
+      } catch (RuntimeException ex) {
+        // 重建失败时丢弃旧快照，下次读取重新加载
+        log.warn("rebuild sys master snapshot failed", ex);
+        snapshot = null;
+      }
+    }
+  }
+
+  private SysMasterSnapshot loadSnapshot() {
+    return new SysMasterSnapshot(
+        SNAPSHOT_EPOCH + "-" + snapshotSequence.incrementAndGet(),
+        sysMasterRepository.listFactories(),
+        sysMasterRepository.listWorkshops(null),
+        sysMasterRepository.listLines(null),
+        sysMasterRepository.listMachines(null),
+        sysMasterRepository.listAbnormalCategories(),
+        sysMasterRepository.listAbnormalTypes(null),
+        sysMasterRepository.listTeams(),
+        sysMasterRepository.listPeople(null));
   }
 
   private String normalizeText(String value) {
@@ -0,0 +1,111 @@
+package org.jdk.project.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.jooq.generated.tables.pojos.*;
+
+/**
+ * 系统维护表快照。
+ *
+ * <p>- 不可变，整体替换（写时复制）； - 预先按父级ID建立索引，下拉联动查询无需访问数据库； - version 用作 HTTP ETag。
+ */
+@Getter
+public final class SysMasterSnapshot {
+
+  private final String version;
+
+  private final List<SysFactory> factories;
+
+  private final List<SysWorkshop> workshops;
+
+  private final List<SysLine> lines;
+
+  private final List<SysMachine> machines;
+
+  private final List<SysAbnormalCategory> abnormalCategories;
+
+  private final List<SysAbnormalType> abnormalTypes;
+
+  private final List<SysTeam> teams;
+
+  private final List<SysPerson> people;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<Long, List<SysWorkshop>> workshopsByFactory;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<Long, List<SysLine>> linesByWorkshop;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<Long, List<SysMachine>> machinesByLine;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<Long, List<SysAbnormalType>> abnormalTypesByCategory;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<Long, List<SysPerson>> peopleByTeam;
+
+  SysMasterSnapshot(
+      String version,
+      List<SysFactory> factories,
+      List<SysWorkshop> workshops,
+      List<SysLine> lines,
+      List<SysMachine> machines,
+      List<SysAbnormalCategory> abnormalCategories,
+      List<SysAbnormalType> abnormalTypes,
+      List<SysTeam> teams,
+      List<SysPerson> people) {
+    this.version = version;
+    this.factories = List.copyOf(factories);
+    this.workshops = List.copyOf(workshops);
+    this.lines = List.copyOf(lines);
+    this.machines = List.copyOf(machines);
+    this.abnormalCategories = List.copyOf(abnormalCategories);
+    this.abnormalTypes = List.copyOf(abnormalTypes);
+    this.teams = List.copyOf(teams);
+    this.people = List.copyOf(people);
+    this.workshopsByFactory = indexBy(this.workshops, SysWorkshop::getFactoryId);
+    this.linesByWorkshop = indexBy(this.lines, SysLine::getWorkshopId);
+    this.machinesByLine = indexBy(this.machines, SysMachine::getLineId);
+    this.abnormalTypesByCategory =
+        indexBy(this.abnormalTypes, SysAbnormalType::getAbnormalCategoryId);
+    this.peopleByTeam = indexBy(this.people, SysPerson::getTeamId);
+  }
+
+  public List<SysWorkshop> listWorkshops(Long factoryId) {
+    return factoryId == null ? workshops : workshopsByFactory.getOrDefault(factoryId, List.of());
+  }
+
+  public List<SysLine> listLines(Long workshopId) {
+    return workshopId == null ? lines : linesByWorkshop.getOrDefault(workshopId, List.of());
+  }
+
+  public List<SysMachine> listMachines(Long lineId) {
+    return lineId == null ? machines : machinesByLine.getOrDefault(lineId, List.of());
+  }
+
+  public List<SysAbnormalType> listAbnormalTypes(Long abnormalCategoryId) {
+    return abnormalCategoryId == null
+        ? abnormalTypes
+        : abnormalTypesByCategory.getOrDefault(abnormalCategoryId, List.of());
+  }
+
+  public List<SysPerson> listPeople(Long teamId) {
+    return teamId == null ? people : peopleByTeam.getOrDefault(teamId, List.of());
+  }
+
+  /** 按父级ID分组，保持原有排序。 */
+  private static <T> Map<Long, List<T>> indexBy(List<T> items, Function<T, Long> parentId) {
+    Map<Long, List<T>> grouped = new HashMap<>();
+    for (T item : items) {
+      grouped.computeIfAbsent(parentId.apply(item), key -> new ArrayList<>()).add(item);
+    }
+    grouped.replaceAll((key, value) -> List.copyOf(value));
+    return Map.copyOf(grouped);
+  }
+}
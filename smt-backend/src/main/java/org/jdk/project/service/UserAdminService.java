@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.jdk.project.config.security.UserDetailsCache;
 import org.jdk.project.dto.user.UserCreateRequest;
 import org.jdk.project.dto.user.UserUpdateRequest;
 import org.jdk.project.dto.user.UserViewDto;
@@ -20,6 +21,8 @@ public class UserAdminService {
 
   private final UserRepository userRepository;
 
+  private final UserDetailsCache userDetailsCache;
+
   public List<UserViewDto> listUsers() {
     List<User> users = userRepository.fetchAllUsers();
     List<UserViewDto> dtos = new ArrayList<>(users.size());
@@ -88,6 +91,7 @@ public class UserAdminService {
     if (!changed) {
       throw new BusinessException("未提交有效修改");
     }
+    userDetailsCache.evict(userId);
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -97,6 +101,7 @@ public class UserAdminService {
     }
     userRepository.deleteUserRoles(userId);
     userRepository.deleteById(userId);
+    userDetailsCache.evict(userId);
   }
 
   @Transactional(rollbackFor = Throwable.class)
@@ -106,6 +111,7 @@ public class UserAdminService {
       throw new BusinessException("账号不存在");
     }
     userRepository.updatePassword(userId, newPassword);
+    userDetailsCache.evict(userId);
   }
 
   private Long toLongId(Object value) {
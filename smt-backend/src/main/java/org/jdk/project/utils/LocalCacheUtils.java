@@ -0,0 +1,52 @@
+package org.jdk.project.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** 本地 Caffeine 缓存的构建与失效工具。 */
+public class LocalCacheUtils {
+
+  /**
+   * 构建容量有界、按写入时间过期的缓存，并通过 actuator 的 cache.* 指标暴露命中/未命中。
+   *
+   * @param name 指标中的缓存名
+   * @param ttlSeconds 过期时间，单位：秒
+   * @param maxSize 最大缓存条数
+   * @param meterRegistry 指标注册表
+   */
+  public static <K, V> Cache<K, V> newMonitoredCache(
+      String name, long ttlSeconds, long maxSize, MeterRegistry meterRegistry) {
+    Cache<K, V> cache =
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    return cache;
+  }
+
+  /**
+   * 执行缓存失效：处于事务中时在提交后执行，避免并发请求在提交前重新加载到旧数据。
+   *
+   * @param invalidation 失效动作
+   */
+  public static void invalidateAfterCommit(Runnable invalidation) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              invalidation.run();
+            }
+          });
+      return;
+    }
+    invalidation.run();
+  }
+}
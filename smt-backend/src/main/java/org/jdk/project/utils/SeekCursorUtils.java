@@ -0,0 +1,46 @@
+package org.jdk.project.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import org.jdk.project.exception.BusinessException;
+
+/** 游标分页（keyset/seek）的游标编解码工具。 */
+public class SeekCursorUtils {
+
+  private static final String SEPARATOR = "|";
+
+  /**
+   * 将排序键值编码为不透明游标。
+   *
+   * @param parts 游标组成部分（不能包含分隔符 |）
+   * @return URL 安全的 Base64 字符串
+   */
+  public static String encode(String... parts) {
+    String raw = String.join(SEPARATOR, parts);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * 解析游标。
+   *
+   * @param cursor 游标字符串
+   * @param expectedParts 期望的组成部分数量
+   * @return 游标组成部分
+   */
+  public static List<String> decode(String cursor, int expectedParts) {
+    String raw;
+    try {
+      raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException ex) {
+      throw new BusinessException("分页游标无效", ex);
+    }
+    List<String> parts = List.of(raw.split("\\|", -1));
+    if (parts.size() != expectedParts) {
+      throw new BusinessException("分页游标无效");
+    }
+    return parts;
+  }
+}
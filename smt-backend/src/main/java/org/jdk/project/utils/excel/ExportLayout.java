@@ -0,0 +1,145 @@
+package org.jdk.project.utils.excel;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * Layout plan of an export sheet, filled in by the code that builds the rows.
+ *
+ * <p>Holds merge ranges, summary rows, fill/center columns and column widths so that {@link
+ * ExportLayoutWriteHandler} can apply them without reading cell values back from the sheet. Rows
+ * may be appended while the sheet is being written in chunks, as long as a row is planned before
+ * it is written. Row indices are absolute sheet row numbers.
+ */
+public class ExportLayout {
+
+  private static final int MAX_COLUMN_WIDTH = 255;
+
+  private final int headRowCount;
+  private final int[] centerColumns;
+  private final int[] fillColumns;
+  private final short fillColorIndex;
+  private final int summaryFirstCol;
+  private final int summaryLastCol;
+  private final short summaryFillColorIndex;
+  private final int widthPadding;
+
+  private final List<CellRangeAddress> mergedRegions = new ArrayList<>();
+  private final BitSet summaryRows = new BitSet();
+  private final List<Integer> columnWidths = new ArrayList<>();
+  private int nextRowIndex;
+
+  /**
+   * @param headRowCount number of head rows before the first data row
+   * @param centerColumns data columns centered horizontally and vertically
+   * @param fillColumns data columns filled with {@code fillColorIndex} on every row
+   * @param summaryFirstCol first column filled on summary rows
+   * @param summaryLastCol last column filled on summary rows
+   * @param summaryFillColorIndex fill color of summary rows, overrides the column fill
+   * @param widthPadding extra characters added to the measured column width
+   */
+  public ExportLayout(
+      int headRowCount,
+      int[] centerColumns,
+      int[] fillColumns,
+      short fillColorIndex,
+      int summaryFirstCol,
+      int summaryLastCol,
+      short summaryFillColorIndex,
+      int widthPadding) {
+    this.headRowCount = headRowCount;
+    this.centerColumns = centerColumns;
+    this.fillColumns = fillColumns;
+    this.fillColorIndex = fillColorIndex;
+    this.summaryFirstCol = summaryFirstCol;
+    this.summaryLastCol = summaryLastCol;
+    this.summaryFillColorIndex = summaryFillColorIndex;
+    this.widthPadding = Math.max(0, widthPadding);
+    this.nextRowIndex = headRowCount;
+  }
+
+  /** Reserves the next data row and returns its sheet row index. */
+  public int nextRow() {
+    return nextRowIndex++;
+  }
+
+  /** Marks a data row as summary row. */
+  public void markSummaryRow(int rowIndex) {
+    summaryRows.set(rowIndex);
+  }
+
+  public boolean isSummaryRow(int rowIndex) {
+    return summaryRows.get(rowIndex);
+  }
+
+  /** Plans a merged region; single-cell regions are ignored. */
+  public void addMergedRegion(int firstRow, int lastRow, int firstCol, int lastCol) {
+    if (firstRow == lastRow && firstCol == lastCol) {
+      return;
+    }
+    mergedRegions.add(new CellRangeAddress(firstRow, lastRow, firstCol, lastCol));
+  }
+
+  /** Records the rendered value of a cell for column width; null values are ignored. */
+  public void measure(int colIndex, Object value) {
+    if (value == null) {
+      return;
+    }
+    int width =
+        Math.min(MAX_COLUMN_WIDTH, Math.max(1, displayLength(value.toString()) + widthPadding));
+    while (columnWidths.size() <= colIndex) {
+      columnWidths.add(0);
+    }
+    if (width > columnWidths.get(colIndex)) {
+      columnWidths.set(colIndex, width);
+    }
+  }
+
+  public int getHeadRowCount() {
+    return headRowCount;
+  }
+
+  public int[] getCenterColumns() {
+    return centerColumns;
+  }
+
+  public int[] getFillColumns() {
+    return fillColumns;
+  }
+
+  public short getFillColorIndex() {
+    return fillColorIndex;
+  }
+
+  public int getSummaryFirstCol() {
+    return summaryFirstCol;
+  }
+
+  public int getSummaryLastCol() {
+    return summaryLastCol;
+  }
+
+  public short getSummaryFillColorIndex() {
+    return summaryFillColorIndex;
+  }
+
+  public List<CellRangeAddress> getMergedRegions() {
+    return mergedRegions;
+  }
+
+  /** Column widths in characters, 0 for columns without measured values. */
+  public List<Integer> getColumnWidths() {
+    return columnWidths;
+  }
+
+  private int displayLength(String value) {
+    int length = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      length += c <= 0xFF ? 1 : 2;
+    }
+    return length;
+  }
+}
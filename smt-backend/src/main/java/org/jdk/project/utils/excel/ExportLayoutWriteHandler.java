@@ -0,0 +1,147 @@
+package org.jdk.project.utils.excel;
+
+import com.alibaba.excel.metadata.Head;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import com.alibaba.excel.write.handler.CellWriteHandler;
+import com.alibaba.excel.write.handler.RowWriteHandler;
+import com.alibaba.excel.write.handler.WorkbookWriteHandler;
+import com.alibaba.excel.write.handler.context.WorkbookWriteHandlerContext;
+import com.alibaba.excel.write.metadata.holder.WriteSheetHolder;
+import com.alibaba.excel.write.metadata.holder.WriteTableHolder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * Applies an {@link ExportLayout} to a single-sheet export.
+ *
+ * <p>Styles are applied per row as rows are written; merged regions and column widths are applied
+ * once before the workbook is written out. No cell value is read back from the sheet. The layout
+ * plans group and summary regions from the same row grouping, so they never overlap and are added
+ * without POI's overlap scan.
+ */
+public class ExportLayoutWriteHandler
+    implements CellWriteHandler, RowWriteHandler, WorkbookWriteHandler {
+
+  private static final short NO_FILL = -1;
+
+  private final ExportLayout layout;
+  private final int maxStyledColumn;
+  private final Map<StyleKey, CellStyle> styleCache = new HashMap<>();
+  private Sheet sheet;
+
+  public ExportLayoutWriteHandler(ExportLayout layout) {
+    this.layout = layout;
+    int max = layout.getSummaryLastCol();
+    for (int col : layout.getCenterColumns()) {
+      max = Math.max(max, col);
+    }
+    for (int col : layout.getFillColumns()) {
+      max = Math.max(max, col);
+    }
+    this.maxStyledColumn = max;
+  }
+
+  @Override
+  public void afterCellDispose(
+      WriteSheetHolder writeSheetHolder,
+      WriteTableHolder writeTableHolder,
+      List<WriteCellData<?>> cellDataList,
+      Cell cell,
+      Head head,
+      Integer relativeRowIndex,
+      Boolean isHead) {
+    if (!Boolean.TRUE.equals(isHead) || head == null) {
+      return;
+    }
+    sheet = writeSheetHolder.getSheet();
+    List<String> headNames = head.getHeadNameList();
+    if (headNames != null && relativeRowIndex != null && relativeRowIndex < headNames.size()) {
+      layout.measure(cell.getColumnIndex(), headNames.get(relativeRowIndex));
+    }
+  }
+
+  @Override
+  public void afterRowDispose(
+      WriteSheetHolder writeSheetHolder,
+      WriteTableHolder writeTableHolder,
+      Row row,
+      Integer relativeRowIndex,
+      Boolean isHead) {
+    if (Boolean.TRUE.equals(isHead) || row == null) {
+      return;
+    }
+    sheet = writeSheetHolder.getSheet();
+    boolean summary = layout.isSummaryRow(row.getRowNum());
+    Workbook workbook = sheet.getWorkbook();
+    for (int col = 0; col <= maxStyledColumn; col++) {
+      boolean center = contains(layout.getCenterColumns(), col);
+      short fill = NO_FILL;
+      if (summary && col >= layout.getSummaryFirstCol() && col <= layout.getSummaryLastCol()) {
+        fill = layout.getSummaryFillColorIndex();
+      } else if (contains(layout.getFillColumns(), col)) {
+        fill = layout.getFillColorIndex();
+      }
+      if (!center && fill == NO_FILL) {
+        continue;
+      }
+      Cell cell = row.getCell(col);
+      if (cell == null) {
+        cell = row.createCell(col);
+      }
+      CellStyle original = cell.getCellStyle();
+      StyleKey key = new StyleKey(original, center, fill);
+      CellStyle cached = styleCache.get(key);
+      if (cached == null) {
+        cached = workbook.createCellStyle();
+        cached.cloneStyleFrom(original);
+        if (center) {
+          cached.setAlignment(HorizontalAlignment.CENTER);
+          cached.setVerticalAlignment(VerticalAlignment.CENTER);
+        }
+        if (fill != NO_FILL) {
+          cached.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+          cached.setFillForegroundColor(fill);
+        }
+        styleCache.put(key, cached);
+      }
+      cell.setCellStyle(cached);
+    }
+  }
+
+  @Override
+  public void afterWorkbookDispose(WorkbookWriteHandlerContext context) {
+    if (sheet == null) {
+      return;
+    }
+    for (CellRangeAddress region : layout.getMergedRegions()) {
+      sheet.addMergedRegionUnsafe(region);
+    }
+    List<Integer> widths = layout.getColumnWidths();
+    for (int col = 0; col < widths.size(); col++) {
+      if (widths.get(col) > 0) {
+        sheet.setColumnWidth(col, widths.get(col) * 256);
+      }
+    }
+  }
+
+  private boolean contains(int[] indices, int colIndex) {
+    for (int index : indices) {
+      if (index == colIndex) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private record StyleKey(CellStyle original, boolean center, short fill) {}
+}
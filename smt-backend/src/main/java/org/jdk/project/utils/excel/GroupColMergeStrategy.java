@@ -3,8 +3,11 @@ package org.jdk.project.utils.excel;
 import com.alibaba.excel.metadata.Head;
 import com.alibaba.excel.metadata.data.WriteCellData;
 import com.alibaba.excel.write.handler.CellWriteHandler;
+import com.alibaba.excel.write.handler.WorkbookWriteHandler;
+import com.alibaba.excel.write.handler.context.WorkbookWriteHandlerContext;
 import com.alibaba.excel.write.metadata.holder.WriteSheetHolder;
 import com.alibaba.excel.write.metadata.holder.WriteTableHolder;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
@@ -17,8 +20,13 @@ import org.apache.poi.ss.util.CellRangeAddress;
  *
  * <p>Cells in merge columns will be merged only when all grouping columns have the same
  * values as the previous row.
+ *
+ * <p>Each merge column keeps one open run; the region is added once when the run ends or when
+ * the workbook is disposed, so merging is linear in rows × merge columns. Instances are stateful
+ * and must not be shared between writers. Pass the same {@link MergedRegionRegistry} to a {@link
+ * SummaryRowMergeStrategy} of the same writer to reject overlapping regions.
  */
-public class GroupColMergeStrategy implements CellWriteHandler {
+public class GroupColMergeStrategy implements CellWriteHandler, WorkbookWriteHandler {
 
   private final int[] mergeColIndices;
   private final int[] groupColIndices;
@@ -26,6 +34,11 @@ public class GroupColMergeStrategy implements CellWriteHandler {
   private final int maxMergeColIndex;
   private final Integer skipMarkerColIndex;
   private final String skipMarkerToken;
+  // Open run (first/last row) per merge column, -1 when none.
+  private final int[] runStartRows;
+  private final int[] runEndRows;
+  private final MergedRegionRegistry registry;
+  private Sheet runSheet;
 
   public GroupColMergeStrategy(int mergeRowIndex, int[] mergeColIndices, int[] groupColIndices) {
     this(mergeRowIndex, mergeColIndices, groupColIndices, null, null);
@@ -37,12 +50,33 @@ public class GroupColMergeStrategy implements CellWriteHandler {
       int[] groupColIndices,
       Integer skipMarkerColIndex,
       String skipMarkerToken) {
+    this(
+        mergeRowIndex,
+        mergeColIndices,
+        groupColIndices,
+        skipMarkerColIndex,
+        skipMarkerToken,
+        new MergedRegionRegistry());
+  }
+
+  public GroupColMergeStrategy(
+      int mergeRowIndex,
+      int[] mergeColIndices,
+      int[] groupColIndices,
+      Integer skipMarkerColIndex,
+      String skipMarkerToken,
+      MergedRegionRegistry registry) {
     this.mergeRowIndex = mergeRowIndex;
     this.mergeColIndices = mergeColIndices;
     this.groupColIndices = groupColIndices;
     this.maxMergeColIndex = findMaxIndex(mergeColIndices);
     this.skipMarkerColIndex = skipMarkerColIndex;
     this.skipMarkerToken = skipMarkerToken;
+    this.runStartRows = new int[mergeColIndices.length];
+    this.runEndRows = new int[mergeColIndices.length];
+    this.registry = registry;
+    Arrays.fill(runStartRows, -1);
+    Arrays.fill(runEndRows, -1);
   }
 
   @Override
@@ -71,43 +105,56 @@ public class GroupColMergeStrategy implements CellWriteHandler {
     }
 
     Sheet sheet = writeSheetHolder.getSheet();
+    if (runSheet != sheet) {
+      closeRuns();
+      runSheet = sheet;
+    }
     Row preRow = sheet.getRow(curRowIndex - 1);
-    if (preRow == null) {
+    if (preRow == null
+        || shouldSkipRow(sheet, curRowIndex)
+        || shouldSkipRow(sheet, curRowIndex - 1)
+        || !groupColumnsMatch(sheet, curRowIndex)) {
+      closeRuns();
       return;
     }
 
-    if (shouldSkipRow(sheet, curRowIndex) || shouldSkipRow(sheet, curRowIndex - 1)) {
-      return;
+    Row curRow = sheet.getRow(curRowIndex);
+    for (int i = 0; i < mergeColIndices.length; i++) {
+      int mergeColIndex = mergeColIndices[i];
+      Cell curCell = curRow.getCell(mergeColIndex);
+      Cell preCell = preRow.getCell(mergeColIndex);
+      if (getCellValue(curCell).equals(getCellValue(preCell))) {
+        if (runStartRows[i] < 0) {
+          runStartRows[i] = curRowIndex - 1;
+        }
+        runEndRows[i] = curRowIndex;
+      } else {
+        closeRun(i);
+      }
     }
+  }
 
-    if (!groupColumnsMatch(sheet, curRowIndex)) {
-      return;
+  /** Flushes runs still open at the end; called before the workbook is written out. */
+  @Override
+  public void afterWorkbookDispose(WorkbookWriteHandlerContext context) {
+    closeRuns();
+  }
+
+  private void closeRuns() {
+    for (int i = 0; i < runStartRows.length; i++) {
+      closeRun(i);
     }
+  }
 
-    for (int mergeColIndex : mergeColIndices) {
-      Cell curCell = sheet.getRow(curRowIndex).getCell(mergeColIndex);
-      Cell preCell = preRow.getCell(mergeColIndex);
-      if (!getCellValue(curCell).equals(getCellValue(preCell))) {
-        continue;
-      }
-      List<CellRangeAddress> mergedRegions = sheet.getMergedRegions();
-      boolean merged = false;
-      for (int i = 0; i < mergedRegions.size(); i++) {
-        CellRangeAddress region = mergedRegions.get(i);
-        if (region.isInRange(curRowIndex - 1, mergeColIndex)) {
-          sheet.removeMergedRegion(i);
-          region.setLastRow(curRowIndex);
-          sheet.addMergedRegion(region);
-          merged = true;
-          break;
-        }
-      }
-      if (!merged) {
-        CellRangeAddress region =
-            new CellRangeAddress(curRowIndex - 1, curRowIndex, mergeColIndex, mergeColIndex);
-        sheet.addMergedRegion(region);
-      }
+  private void closeRun(int index) {
+    int firstRow = runStartRows[index];
+    if (firstRow < 0) {
+      return;
     }
+    int colIndex = mergeColIndices[index];
+    registry.add(runSheet, new CellRangeAddress(firstRow, runEndRows[index], colIndex, colIndex));
+    runStartRows[index] = -1;
+    runEndRows[index] = -1;
   }
 
   private boolean groupColumnsMatch(Sheet sheet, int curRowIndex) {
@@ -0,0 +1,100 @@
+package org.jdk.project.utils.excel;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * Registry of merged regions shared by merge handlers that decide their regions independently.
+ *
+ * <p>{@link GroupColMergeStrategy} and {@link SummaryRowMergeStrategy} each derive regions from
+ * cell values, so a vertical run can cross a summary row that is merged horizontally. POI's
+ * unchecked add would then write a file Excel has to repair, and its checked add scans every
+ * existing region. Regions are keyed by a packed long (firstRow, lastRow, firstCol, lastCol) so
+ * duplicate checks are a hash lookup, and each column keeps its row intervals in a sorted map so
+ * overlap checks do not scan {@link Sheet#getMergedRegions()}. Only regions added through the
+ * registry are known to it.
+ *
+ * <p>Create one instance per writer and pass it to the handlers that should share it; the state is
+ * reset when a region for a different sheet is added. Not thread-safe.
+ */
+public final class MergedRegionRegistry {
+
+  private static final int ROW_BITS = 20;
+  private static final int COL_BITS = 12;
+  private static final int MAX_ROW = (1 << ROW_BITS) - 1;
+  private static final int MAX_COL = (1 << COL_BITS) - 1;
+
+  private final Set<Long> regionKeys = new HashSet<>();
+  // Column -> (firstRow -> lastRow) of registered regions covering that column.
+  private final Map<Integer, TreeMap<Integer, Integer>> columnIntervals = new HashMap<>();
+  private Sheet sheet;
+
+  /** Whether exactly this region has been registered. */
+  public boolean contains(CellRangeAddress region) {
+    return regionKeys.contains(pack(region));
+  }
+
+  /** Whether the region intersects any registered region. */
+  public boolean overlaps(CellRangeAddress region) {
+    for (int col = region.getFirstColumn(); col <= region.getLastColumn(); col++) {
+      TreeMap<Integer, Integer> intervals = columnIntervals.get(col);
+      if (intervals == null) {
+        continue;
+      }
+      Map.Entry<Integer, Integer> floor = intervals.floorEntry(region.getLastRow());
+      if (floor != null && floor.getValue() >= region.getFirstRow()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adds the region to the sheet and registers it.
+   *
+   * @return false if the same region was already registered
+   * @throws IllegalStateException if the region overlaps a different registered region
+   */
+  public boolean add(Sheet sheet, CellRangeAddress region) {
+    if (this.sheet != sheet) {
+      regionKeys.clear();
+      columnIntervals.clear();
+      this.sheet = sheet;
+    }
+    if (contains(region)) {
+      return false;
+    }
+    if (overlaps(region)) {
+      throw new IllegalStateException(
+          "Merged region " + region.formatAsString() + " overlaps an existing merged region");
+    }
+    // Overlap has been checked above, skip POI's scan over every existing region.
+    sheet.addMergedRegionUnsafe(region);
+    regionKeys.add(pack(region));
+    for (int col = region.getFirstColumn(); col <= region.getLastColumn(); col++) {
+      columnIntervals
+          .computeIfAbsent(col, key -> new TreeMap<>())
+          .put(region.getFirstRow(), region.getLastRow());
+    }
+    return true;
+  }
+
+  private static long pack(CellRangeAddress region) {
+    int firstRow = region.getFirstRow();
+    int lastRow = region.getLastRow();
+    int firstCol = region.getFirstColumn();
+    int lastCol = region.getLastColumn();
+    if (firstRow < 0 || lastRow > MAX_ROW || firstCol < 0 || lastCol > MAX_COL) {
+      throw new IllegalArgumentException("Merged region out of range: " + region.formatAsString());
+    }
+    return ((long) firstRow << (ROW_BITS + 2 * COL_BITS))
+        | ((long) lastRow << (2 * COL_BITS))
+        | ((long) firstCol << COL_BITS)
+        | lastCol;
+  }
+}
@@ -10,7 +10,12 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.util.CellRangeAddress;
 
-/** Merges a summary row horizontally when the marker cell contains the token. */
+/**
+ * Merges a summary row horizontally when the marker cell contains the token.
+ *
+ * <p>Pass the {@link MergedRegionRegistry} of the writer's {@link GroupColMergeStrategy} so that
+ * duplicate and overlapping regions are detected without scanning the sheet.
+ */
 public class SummaryRowMergeStrategy implements CellWriteHandler {
 
   private final int markerColumnIndex;
@@ -18,6 +23,7 @@ public class SummaryRowMergeStrategy implements CellWriteHandler {
   private final int startColIndex;
   private final int endColIndex;
   private final int mergeRowIndex;
+  private final MergedRegionRegistry registry;
 
   public SummaryRowMergeStrategy(
       int mergeRowIndex,
@@ -25,11 +31,28 @@ public class SummaryRowMergeStrategy implements CellWriteHandler {
       String markerToken,
       int startColIndex,
       int endColIndex) {
+    this(
+        mergeRowIndex,
+        markerColumnIndex,
+        markerToken,
+        startColIndex,
+        endColIndex,
+        new MergedRegionRegistry());
+  }
+
+  public SummaryRowMergeStrategy(
+      int mergeRowIndex,
+      int markerColumnIndex,
+      String markerToken,
+      int startColIndex,
+      int endColIndex,
+      MergedRegionRegistry registry) {
     this.mergeRowIndex = mergeRowIndex;
     this.markerColumnIndex = markerColumnIndex;
     this.markerToken = markerToken;
     this.startColIndex = startColIndex;
     this.endColIndex = endColIndex;
+    this.registry = registry;
   }
 
   @Override
@@ -59,22 +82,6 @@ public class SummaryRowMergeStrategy implements CellWriteHandler {
 
     Sheet sheet = writeSheetHolder.getSheet();
     CellRangeAddress region = new CellRangeAddress(rowIndex, rowIndex, startColIndex, endColIndex);
-    if (isMergedRegionExists(sheet, region)) {
-      return;
-    }
-    sheet.addMergedRegion(region);
-  }
-
-  private boolean isMergedRegionExists(Sheet sheet, CellRangeAddress target) {
-    List<CellRangeAddress> mergedRegions = sheet.getMergedRegions();
-    for (CellRangeAddress region : mergedRegions) {
-      if (region.getFirstRow() == target.getFirstRow()
-          && region.getLastRow() == target.getLastRow()
-          && region.getFirstColumn() == target.getFirstColumn()
-          && region.getLastColumn() == target.getLastColumn()) {
-        return true;
-      }
-    }
-    return false;
+    registry.add(sheet, region);
   }
 }
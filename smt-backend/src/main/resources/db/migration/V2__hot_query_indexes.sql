@@ -0,0 +1,49 @@
+-- 热点查询索引：维修记录列表/导出筛选、维修人员回填
+-- 每条语句先判断索引是否存在，兼容手工执行过 sql/schema.sql 新版本的库
+-- 执行计划校验见 sql/plan-check/plan-check.sh
+
+-- 维修记录按发生时间倒序分页/导出（默认排序），常用筛选列放在 include 中，
+-- 残余谓词在索引内过滤，只对命中页回表取描述/对策等大字段
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'IX_repair_record_occur_at'
+                 AND object_id = OBJECT_ID('smtBackend.repair_record'))
+    CREATE INDEX [IX_repair_record_occur_at]
+        ON smtBackend.repair_record ([occur_at] DESC, [id] DESC)
+        INCLUDE ([shift], [factory_name], [workshop_name], [line_name], [machine_no],
+                 [is_fixed], [fixed_at], [team_name], [abnormal_category_name], [abnormal_type_name]);
+
+-- 按线别/机台号查询（机台履历），时间倒序
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'IX_repair_record_line_machine'
+                 AND object_id = OBJECT_ID('smtBackend.repair_record'))
+    CREATE INDEX [IX_repair_record_line_machine]
+        ON smtBackend.repair_record ([line_name], [machine_no], [occur_at] DESC)
+        INCLUDE ([factory_name], [workshop_name], [shift], [is_fixed], [fixed_at], [team_name]);
+
+-- 按修复时间范围查询（未修复记录 fixed_at 为空）
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'IX_repair_record_fixed_at'
+                 AND object_id = OBJECT_ID('smtBackend.repair_record'))
+    CREATE INDEX [IX_repair_record_fixed_at]
+        ON smtBackend.repair_record ([fixed_at] DESC)
+        INCLUDE ([occur_at], [shift], [factory_name], [workshop_name], [line_name], [machine_no],
+                 [is_fixed], [team_name]);
+
+-- 按组别查询（含是否修复），时间倒序
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'IX_repair_record_team_occur'
+                 AND object_id = OBJECT_ID('smtBackend.repair_record'))
+    CREATE INDEX [IX_repair_record_team_occur]
+        ON smtBackend.repair_record ([team_name], [occur_at] DESC)
+        INCLUDE ([is_fixed], [fixed_at], [line_name], [machine_no]);
+
+-- 维修人员按记录ID批量回填，覆盖 person_name 避免回表
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'IX_repair_record_person_record'
+                 AND object_id = OBJECT_ID('smtBackend.repair_record_person'))
+    CREATE INDEX [IX_repair_record_person_record]
+        ON smtBackend.repair_record_person ([repair_record_id])
+        INCLUDE ([person_name]);
+
+-- 说明：每日产能按 prod_date 范围查询由 UQ_production_daily_header_key（prod_date 前导）承担，
+-- 明细按 header_id 关联由 UQ_production_daily_process_key（header_id 前导）承担，无需新增索引。
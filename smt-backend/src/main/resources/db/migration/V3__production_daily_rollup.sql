@@ -0,0 +1,32 @@
+-- 每日产能预聚合表：统计/趋势查询只读汇总行，不再扫描明细
+-- 由 ProductionDailyService.saveBatch 在同一事务内增量维护，POST /production-daily/rollup/rebuild 可全量重建
+-- 先判断表是否存在，兼容手工执行过 sql/schema.sql 新版本的库
+IF OBJECT_ID(N'smtBackend.production_daily_rollup', N'U') IS NULL
+CREATE TABLE smtBackend.production_daily_rollup
+(
+    [prod_date]     DATE          NOT NULL, -- 产能日期
+    [shift]         NVARCHAR(8)   NOT NULL, -- 班别：DAY=白班，NIGHT=夜班
+    [factory_name]  NVARCHAR(255) NOT NULL, -- 厂区名称
+    [workshop_name] NVARCHAR(255) NOT NULL, -- 车间名称
+    [line_name]     NVARCHAR(255) NOT NULL, -- 线别名称
+    [process_name]  NVARCHAR(128) NOT NULL, -- 制程段名称
+    [target_output] BIGINT        NOT NULL, -- 目标产能合计
+    [actual_output] BIGINT        NOT NULL, -- 实际产出合计
+    [down_minutes]  BIGINT        NOT NULL, -- 理论Down机时间合计(分钟)
+    [row_count]     INT           NOT NULL, -- 汇总的明细行数
+    CONSTRAINT [PK_production_daily_rollup]
+        PRIMARY KEY ([prod_date], [shift], [factory_name], [workshop_name], [line_name], [process_name])
+);
+
+-- 每日产能汇总：由明细全量生成（先清空，表已存在且有数据时重复执行结果一致）
+DELETE FROM smtBackend.production_daily_rollup;
+
+INSERT INTO smtBackend.production_daily_rollup
+    ([prod_date], [shift], [factory_name], [workshop_name], [line_name], [process_name],
+     [target_output], [actual_output], [down_minutes], [row_count])
+SELECT h.[prod_date], h.[shift], h.[factory_name], h.[workshop_name], h.[line_name], p.[process_name],
+       SUM(CAST(p.[target_output] AS BIGINT)), SUM(CAST(p.[actual_output] AS BIGINT)),
+       SUM(CAST(p.[down_minutes] AS BIGINT)), COUNT(*)
+FROM smtBackend.production_daily_process p
+         JOIN smtBackend.production_daily_header h ON h.[id] = p.[header_id]
+GROUP BY h.[prod_date], h.[shift], h.[factory_name], h.[workshop_name], h.[line_name], p.[process_name];
@@ -0,0 +1,80 @@
+package org.jdk.project.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class ConnectionLimitingDataSourceTest {
+
+  private final DataSource target = mock(DataSource.class);
+
+  @Test
+  void doubleCloseReleasesPermitOnce() throws SQLException {
+    Connection physical = mock(Connection.class);
+    when(target.getConnection()).thenReturn(physical);
+    ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 2, 10);
+
+    Connection connection = dataSource.getConnection();
+    assertThat(dataSource.availablePermits()).isEqualTo(1);
+    connection.close();
+    connection.close();
+
+    assertThat(dataSource.availablePermits()).isEqualTo(2);
+    verify(physical, times(2)).close();
+  }
+
+  @Test
+  void permitIsReleasedWhenCloseFails() throws SQLException {
+    Connection physical = mock(Connection.class);
+    when(target.getConnection()).thenReturn(physical);
+    doThrow(new SQLException("broken")).when(physical).close();
+    ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 10);
+
+    Connection connection = dataSource.getConnection();
+
+    assertThatThrownBy(connection::close).isInstanceOf(SQLException.class);
+    assertThat(dataSource.availablePermits()).isEqualTo(1);
+  }
+
+  @Test
+  void permitIsReleasedWhenTargetFails() throws SQLException {
+    when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+    ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 10);
+
+    assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+    assertThat(dataSource.availablePermits()).isEqualTo(1);
+  }
+
+  @Test
+  void waitingForPermitTimesOut() throws SQLException {
+    when(target.getConnection()).thenReturn(mock(Connection.class));
+    ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 10);
+
+    try (Connection ignored = dataSource.getConnection()) {
+      assertThatThrownBy(dataSource::getConnection)
+          .isInstanceOf(SQLTransientConnectionException.class);
+    }
+    assertThat(dataSource.availablePermits()).isEqualTo(1);
+  }
+
+  @Test
+  void proxyUsesIdentityEquality() throws SQLException {
+    when(target.getConnection()).thenReturn(mock(Connection.class));
+    ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 2, 10);
+
+    try (Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection()) {
+      assertThat(first).isEqualTo(first).isNotEqualTo(second);
+    }
+  }
+}
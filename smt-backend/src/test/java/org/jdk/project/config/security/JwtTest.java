@@ -0,0 +1,142 @@
+package org.jdk.project.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class JwtTest {
+
+  private static final int EXPIRATION_MIN = 60;
+  private static final long SESSION_MAX_AGE_MIN = 720;
+  private static final String COOKIE_NAME = "token";
+
+  private final Jwt jwt = newJwt(EXPIRATION_MIN, SESSION_MAX_AGE_MIN);
+
+  @Test
+  void freshTokenIsNotRenewed() {
+    Instant now = Instant.now();
+    Jwt.VerifiedToken token =
+        new Jwt.VerifiedToken("1", now, now.plus(Duration.ofMinutes(EXPIRATION_MIN)), now);
+
+    assertThat(jwt.shouldRenew(token)).isFalse();
+  }
+
+  @Test
+  void tokenPastHalfOfItsLifetimeIsRenewed() {
+    Instant now = Instant.now();
+    Instant issuedAt = now.minus(Duration.ofMinutes(40));
+    Jwt.VerifiedToken token =
+        new Jwt.VerifiedToken("1", issuedAt, now.plus(Duration.ofMinutes(20)), issuedAt);
+
+    assertThat(jwt.shouldRenew(token)).isTrue();
+  }
+
+  @Test
+  void tokenExpiringAtSessionDeadlineIsNotRenewed() {
+    Instant now = Instant.now();
+    Instant authenticatedAt = now.minus(Duration.ofMinutes(SESSION_MAX_AGE_MIN - 20));
+    Jwt.VerifiedToken token =
+        new Jwt.VerifiedToken(
+            "1",
+            now.minus(Duration.ofMinutes(40)),
+            authenticatedAt.plus(Duration.ofMinutes(SESSION_MAX_AGE_MIN)),
+            authenticatedAt);
+
+    assertThat(jwt.shouldRenew(token)).isFalse();
+  }
+
+  @Test
+  void tokenWithoutTimesIsNotRenewed() {
+    Instant now = Instant.now();
+
+    assertThat(jwt.shouldRenew(new Jwt.VerifiedToken("1", null, null, now))).isFalse();
+  }
+
+  @Test
+  void renewedTokenKeepsSubjectAndLoginTime() {
+    Instant authenticatedAt =
+        Instant.now().minus(Duration.ofHours(2)).truncatedTo(ChronoUnit.SECONDS);
+    Jwt.VerifiedToken renewed = renew(token("42", authenticatedAt));
+
+    assertThat(renewed.subject()).isEqualTo("42");
+    assertThat(renewed.authenticatedAt()).isEqualTo(authenticatedAt);
+    // 距离会话上限较远时获得完整有效期
+    assertThat(Duration.between(renewed.issuedAt(), renewed.expiresAt()))
+        .isEqualTo(Duration.ofMinutes(EXPIRATION_MIN));
+  }
+
+  @Test
+  void renewedTokenIsCappedAtSessionDeadline() {
+    Instant authenticatedAt =
+        Instant.now()
+            .minus(Duration.ofMinutes(SESSION_MAX_AGE_MIN - 10))
+            .truncatedTo(ChronoUnit.SECONDS);
+    Jwt.VerifiedToken renewed = renew(token("42", authenticatedAt));
+
+    assertThat(renewed.expiresAt())
+        .isEqualTo(authenticatedAt.plus(Duration.ofMinutes(SESSION_MAX_AGE_MIN)));
+    assertThat(jwt.shouldRenew(renewed)).isFalse();
+  }
+
+  @Test
+  void newSessionStartsAtIssueTime() {
+    Jwt.VerifiedToken verified = jwt.verify(jwt.create("7"));
+
+    assertThat(verified.subject()).isEqualTo("7");
+    assertThat(verified.authenticatedAt()).isEqualTo(verified.issuedAt());
+  }
+
+  @Test
+  void tamperedTokenIsRejected() {
+    String token = jwt.create("7");
+
+    assertThat(jwt.verify(token.substring(0, token.length() - 2) + "xx")).isNull();
+  }
+
+  @Test
+  void sessionMaxAgeShorterThanExpirationIsRejected() {
+    assertThatThrownBy(() -> newJwt(60, 30)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private Jwt.VerifiedToken token(String subject, Instant authenticatedAt) {
+    Instant now = Instant.now();
+    return new Jwt.VerifiedToken(
+        subject,
+        now.minus(Duration.ofMinutes(40)),
+        now.plus(Duration.ofMinutes(20)),
+        authenticatedAt);
+  }
+
+  private Jwt.VerifiedToken renew(Jwt.VerifiedToken token) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    jwt.renewToken(request, response, token);
+
+    assertThat(request.getAttribute(Jwt.RENEWED_ATTRIBUTE)).isEqualTo(Boolean.TRUE);
+    Cookie cookie = response.getCookie(COOKIE_NAME);
+    assertThat(cookie).isNotNull();
+    Jwt.VerifiedToken verified = jwt.verify(cookie.getValue());
+    assertThat(verified).isNotNull();
+    return verified;
+  }
+
+  private static Jwt newJwt(int expirationMin, long sessionMaxAgeMin) {
+    return new Jwt(
+        "unit-test-secret",
+        expirationMin,
+        COOKIE_NAME,
+        100,
+        300,
+        0.5,
+        sessionMaxAgeMin,
+        new SimpleMeterRegistry());
+  }
+}
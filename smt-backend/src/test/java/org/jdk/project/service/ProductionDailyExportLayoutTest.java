@@ -0,0 +1,167 @@
+package org.jdk.project.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alibaba.excel.EasyExcel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.jdk.project.dto.production.ProductionDailyExportDto;
+import org.jdk.project.dto.production.ProductionDailyProcessViewDto;
+import org.jdk.project.utils.excel.ExportLayout;
+import org.jdk.project.utils.excel.GroupColMergeStrategy;
+import org.jdk.project.utils.excel.MergedRegionRegistry;
+import org.jdk.project.utils.excel.SummaryRowMergeStrategy;
+import org.junit.jupiter.api.Test;
+
+/** 预计算版式与原逐单元格合并处理器链的输出对比。 */
+class ProductionDailyExportLayoutTest {
+
+  private static final String SHEET_NAME = "每日产能";
+  private static final int PROCESS_NAME_COL = 5;
+
+  private final ProductionDailyService service = new ProductionDailyService(null, null, null);
+
+  @Test
+  void layoutMergesSameRegionsAsHandlerChain() throws IOException {
+    List<ProductionDailyProcessViewDto> records = sampleRecords();
+    ProductionDailyService.ExportData data = service.buildExportData(records);
+
+    try (Workbook layoutBook = read(writeWithLayout(data));
+        Workbook chainBook = read(writeWithHandlerChain(data.rows()))) {
+      Set<String> layoutRegions = mergedRegions(layoutBook.getSheet(SHEET_NAME));
+      assertThat(layoutRegions)
+          .isNotEmpty()
+          .isEqualTo(mergedRegions(chainBook.getSheet(SHEET_NAME)));
+    }
+  }
+
+  @Test
+  void layoutMarksAndFillsSummaryRows() throws IOException {
+    ProductionDailyService.ExportData data = service.buildExportData(sampleRecords());
+    ExportLayout layout = data.layout();
+
+    try (Workbook workbook = read(writeWithLayout(data))) {
+      Sheet sheet = workbook.getSheet(SHEET_NAME);
+      Set<Integer> markerRows = new TreeSet<>();
+      Set<Integer> filledRows = new TreeSet<>();
+      for (int rowIndex = layout.getHeadRowCount(); rowIndex <= sheet.getLastRowNum(); rowIndex++) {
+        Row row = sheet.getRow(rowIndex);
+        Cell marker = row.getCell(PROCESS_NAME_COL);
+        if (marker != null && marker.getStringCellValue().endsWith("合计")) {
+          markerRows.add(rowIndex);
+        }
+        Cell first = row.getCell(layout.getSummaryFirstCol());
+        if (first != null
+            && first.getCellStyle().getFillForegroundColor()
+                == IndexedColors.GREEN.getIndex()) {
+          filledRows.add(rowIndex);
+        }
+        assertThat(layout.isSummaryRow(rowIndex)).isEqualTo(markerRows.contains(rowIndex));
+      }
+      // 2 天 × 2 线别，每组 2 个制程段合计，另有 1 个单行分组
+      assertThat(markerRows).hasSize(9).isEqualTo(filledRows);
+    }
+  }
+
+  @Test
+  void emptyExportHasNoMergedRegions() throws IOException {
+    ProductionDailyService.ExportData data = service.buildExportData(List.of());
+
+    try (Workbook workbook = read(writeWithLayout(data))) {
+      assertThat(workbook.getSheet(SHEET_NAME).getNumMergedRegions()).isZero();
+    }
+  }
+
+  private byte[] writeWithLayout(ProductionDailyService.ExportData data) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.exportWriterBuilder(out, data.layout()).sheet(SHEET_NAME).doWrite(data.rows());
+    return out.toByteArray();
+  }
+
+  /** 版式引入前 writeExport 注册的合并处理器。 */
+  private byte[] writeWithHandlerChain(List<ProductionDailyExportDto> rows) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MergedRegionRegistry registry = new MergedRegionRegistry();
+    EasyExcel.write(out, ProductionDailyExportDto.class)
+        .registerWriteHandler(
+            new GroupColMergeStrategy(
+                1, new int[] {0, 1, 2, 3}, new int[] {0, 1, 2, 3}, 5, "合计", registry))
+        .registerWriteHandler(new SummaryRowMergeStrategy(1, 5, "合计", 0, 11, registry))
+        .registerWriteHandler(
+            new GroupColMergeStrategy(
+                1, new int[] {4}, new int[] {0, 1, 2, 3, 4}, null, null, registry))
+        .sheet(SHEET_NAME)
+        .doWrite(rows);
+    return out.toByteArray();
+  }
+
+  private Workbook read(byte[] bytes) throws IOException {
+    return WorkbookFactory.create(new ByteArrayInputStream(bytes));
+  }
+
+  private Set<String> mergedRegions(Sheet sheet) {
+    Set<String> regions = new TreeSet<>();
+    for (CellRangeAddress region : sheet.getMergedRegions()) {
+      regions.add(region.formatAsString());
+    }
+    return regions;
+  }
+
+  /** 按导出排序生成明细：每组 2 个班别 × 2 个制程段 × 2 台机台，末尾追加一个单行分组。 */
+  private List<ProductionDailyProcessViewDto> sampleRecords() {
+    List<ProductionDailyProcessViewDto> records = new ArrayList<>();
+    long id = 1;
+    for (int day = 0; day < 2; day++) {
+      for (String line : List.of("L1", "L2")) {
+        for (String shift : List.of("DAY", "NIGHT")) {
+          for (String process : List.of("印刷", "贴片")) {
+            for (String machine : List.of("M1", "M2")) {
+              LocalDate prodDate = LocalDate.of(2025, 12, 1 + day);
+              records.add(record(id++, prodDate, line, shift, process, machine));
+            }
+          }
+        }
+      }
+    }
+    records.add(record(id, LocalDate.of(2025, 12, 3), "L1", "DAY", "回流焊", "M1"));
+    return records;
+  }
+
+  private ProductionDailyProcessViewDto record(
+      long id, LocalDate prodDate, String line, String shift, String process, String machine) {
+    ProductionDailyProcessViewDto record = new ProductionDailyProcessViewDto();
+    record.setId(id);
+    record.setProdDate(prodDate);
+    record.setShift(shift);
+    record.setFactoryName("一厂");
+    record.setWorkshopName("SMT车间");
+    record.setLineName(line);
+    record.setProcessName(process);
+    record.setMachineNo(machine);
+    record.setProductCode("PN-1");
+    record.setSeriesName("S1");
+    record.setCt(BigDecimal.valueOf(1250, 2));
+    record.setEquipmentCount(1);
+    record.setRunMinutes(600);
+    record.setTargetOutput(2880);
+    record.setActualOutput(2800);
+    record.setGap(-80);
+    record.setAchievementRate(BigDecimal.valueOf(9722, 2));
+    record.setDownMinutes(0);
+    return record;
+  }
+}
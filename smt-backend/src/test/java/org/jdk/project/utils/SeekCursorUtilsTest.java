@@ -0,0 +1,69 @@
+package org.jdk.project.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import org.jdk.project.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+class SeekCursorUtilsTest {
+
+  @Test
+  void decodeReturnsEncodedParts() {
+    String cursor = SeekCursorUtils.encode("occurAt", "DESC", "2025-12-01T08:30", "42");
+
+    assertThat(SeekCursorUtils.decode(cursor, 4))
+        .containsExactly("occurAt", "DESC", "2025-12-01T08:30", "42");
+  }
+
+  @Test
+  void emptyAndNonAsciiPartsSurviveRoundTrip() {
+    String cursor = SeekCursorUtils.encode("id", "ASC", "", "白班");
+
+    assertThat(SeekCursorUtils.decode(cursor, 4)).containsExactly("id", "ASC", "", "白班");
+  }
+
+  @Test
+  void encodedCursorIsUrlSafe() {
+    String cursor = SeekCursorUtils.encode("???", ">>>", "~~~");
+
+    assertThat(cursor).doesNotContain("+", "/", "=");
+  }
+
+  @Test
+  void rejectsCursorThatIsNotBase64() {
+    assertThatThrownBy(() -> SeekCursorUtils.decode("not a cursor!", 4))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("分页游标无效");
+  }
+
+  @Test
+  void rejectsCursorWithWrongPartCount() {
+    String cursor = SeekCursorUtils.encode("DESC", "2025-12-01", "DAY");
+
+    assertThatThrownBy(() -> SeekCursorUtils.decode(cursor, 4))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("分页游标无效");
+  }
+
+  @Test
+  void rejectsCursorWithInjectedSeparator() {
+    String tampered =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString("DESC|2025-12-01|DAY|1|2".getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> SeekCursorUtils.decode(tampered, 4))
+        .isInstanceOf(BusinessException.class);
+  }
+
+  @Test
+  void decodeKeepsTrailingEmptyParts() {
+    List<String> parts = SeekCursorUtils.decode(SeekCursorUtils.encode("a", "", ""), 3);
+
+    assertThat(parts).containsExactly("a", "", "");
+  }
+}
@@ -7,6 +7,8 @@ export const signIn = (data) => request('/auth/sign-in', {
 
 export const signOut = () => request('/auth/sign-out', { method: 'POST' })
 
+export const refreshToken = () => request('/auth/refresh', { method: 'POST' })
+
 export const getMe = (options = {}) => request('/auth/me', options)
 
 export const updatePassword = (data) => request('/auth/me/password', {
@@ -0,0 +1,33 @@
+import { request } from '../utils/request'
+
+const apiBase = import.meta.env.VITE_API_BASE || '/api'
+const POLL_INTERVAL_MS = 1000
+// 最长等待 10 分钟，超时后停止轮询（任务仍在服务端继续，可稍后重新导出复用）
+const POLL_TIMEOUT_MS = 10 * 60 * 1000
+
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms))
+
+// 提交异步导出任务，轮询到生成完成后交给浏览器下载（服务端支持 Range，可断点续传）
+export const runExportJob = async (type, query = {}) => {
+  const params = new URLSearchParams(
+    Object.entries(query).filter(([, value]) => value !== null && value !== '' && value !== undefined)
+  ).toString()
+  let job = await request(`/export-jobs/${type}${params ? `?${params}` : ''}`, { method: 'POST' })
+  const deadline = Date.now() + POLL_TIMEOUT_MS
+  while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+    if (Date.now() >= deadline) {
+      throw new Error('导出超时，请稍后重试')
+    }
+    await sleep(POLL_INTERVAL_MS)
+    job = await request(`/export-jobs/${job.id}`)
+  }
+  if (job.status !== 'DONE') {
+    throw new Error(job.error || '导出失败')
+  }
+  const a = document.createElement('a')
+  a.href = `${apiBase}/export-jobs/${job.id}/file`
+  a.download = job.fileName || ''
+  document.body.appendChild(a)
+  a.click()
+  document.body.removeChild(a)
+}
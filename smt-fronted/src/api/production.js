@@ -16,7 +16,31 @@ export const saveProductionDailyBatch = (data) => request('/production-daily/bat
   body: JSON.stringify(data)
 })
 
-export const getProductionDailyRecords = () => request('/production-daily/records')
+export const getProductionDailyRecords = (query = {}) => {
+  const params = new URLSearchParams(
+    Object.entries(query).filter(([, value]) => value !== null && value !== '' && value !== undefined)
+  ).toString()
+  return request(`/production-daily/records${params ? `?${params}` : ''}`)
+}
+
+export const getProductionDailyStats = (query = {}) => {
+  const params = new URLSearchParams(
+    Object.entries(query).filter(([, value]) => value !== null && value !== '' && value !== undefined)
+  ).toString()
+  return request(`/production-daily/stats${params ? `?${params}` : ''}`)
+}
+
+// Excel 批量导入：返回 { totalRows, importedRows, failedRows, errors: [{ rowNumber, message }] }
+export const importProductionDaily = (file) => {
+  const formData = new FormData()
+  formData.append('file', file)
+  // 传入空 headers 覆盖默认的 JSON Content-Type，由浏览器生成 multipart 边界
+  return request('/production-daily/import', {
+    method: 'POST',
+    body: formData,
+    headers: {}
+  })
+}
 
 const downloadExcel = async (response) => {
   const blob = await response.blob()
@@ -1,6 +1,9 @@
 import { defineStore } from 'pinia'
 import { ref, computed } from 'vue'
-import { getMe, signIn as apiSignIn, signOut as apiSignOut } from '../api/auth'
+import { getMe, refreshToken, signIn as apiSignIn, signOut as apiSignOut } from '../api/auth'
+
+// 后台续期间隔，需小于后端 jwt.expiration-min
+const REFRESH_INTERVAL_MS = 10 * 60 * 1000
 
 export const useAuthStore = defineStore('auth', () => {
   const currentUser = ref({
@@ -11,6 +14,7 @@ export const useAuthStore = defineStore('auth', () => {
   })
   
   const authReady = ref(false)
+  let refreshTimer = null
 
   const isAuthenticated = computed(() => Boolean(currentUser.value?.id))
   const isAdmin = computed(() => hasRole('ADMIN') || hasPermission('sys:write'))
@@ -29,6 +33,7 @@ export const useAuthStore = defineStore('auth', () => {
           roles: user.roles || [],
           permissions: user.permissions || []
         }
+        startRefresh()
       } else {
         resetUser()
       }
@@ -40,9 +45,31 @@ export const useAuthStore = defineStore('auth', () => {
   }
 
   const resetUser = () => {
+    stopRefresh()
     currentUser.value = { id: null, name: '', roles: [], permissions: [] }
   }
 
+  // 定时续期 Cookie，页面长时间无操作时也不会在班中过期。
+  // 后端仅在令牌用过一半后签发新令牌，且不超过会话最长时限；后台标签页不发请求
+  const startRefresh = () => {
+    if (refreshTimer) return
+    refreshTimer = setInterval(async () => {
+      if (document.hidden) return
+      try {
+        await refreshToken()
+      } catch (error) {
+        resetUser()
+      }
+    }, REFRESH_INTERVAL_MS)
+  }
+
+  const stopRefresh = () => {
+    if (refreshTimer) {
+      clearInterval(refreshTimer)
+      refreshTimer = null
+    }
+  }
+
   const login = async (credentials) => {
     await apiSignIn(credentials)
     await loadUser()